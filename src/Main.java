@@ -1,17 +1,453 @@
 import models.Process;
+import models.ProcessTable;
 import schedulers.*;
 import utils.InputParser;
 import utils.OutputFormatter;
+import utils.ResultWriter;
+import utils.WorkloadLoader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main {
+    private static final String USAGE = String.join("\n",
+            "Usage: java Main                          interactive menu",
+            "       java Main --workload FILE [options] run from the command line",
+            "       java Main --batch FILE|-            run one option line per run, in one JVM",
+            "Options:",
+            "  --workload FILE         .csv, test case .json or binary .bin workload",
+            "  --scheduler NAMES       comma separated: SJF, RR, Priority, AG, or all (default all)",
+            "  --rr-quantum N          Round Robin time quantum (required for RR)",
+            "  --context-switch N      context switch time (default 0)",
+            "  --aging-interval N      Priority aging interval (required for Priority)",
+            "  --format text|csv|jsonl output format (default text)",
+            "  --out FILE              output file (default standard output)",
+            "  --summary               write only the summary of each run",
+            "  --compare               print the schedulers side by side; results are then",
+            "                          written only if --out is given",
+            "  --sweep                 run every combination of the --rr-quantum, --context-switch",
+            "                          and --aging-interval values (lists like 2,4,8 or ranges",
+            "                          like 1..20 or 1..20:2) and write JSON lines per point",
+            "                          and for the Pareto-best points",
+            "  --no-cut-off            finish sweep points that are already beaten",
+            "  --cpus N                simulate N CPUs, each with its own ready queue, and write",
+            "                          a text report; with one --context-switch value per CPU,",
+            "                          each CPU has its own",
+            "  --placement round-robin|least-loaded",
+            "                          CPU a new arrival goes to (default least-loaded)",
+            "  --no-stealing           idle CPUs do not take waiting processes from others");
+
+    // Parsed workloads, kept as unscheduled templates and copied for each run
+    private static final Map<Path, ProcessTable> workloads = new HashMap<>();
+    // Open sinks by output path; runs writing to the same file append to it
+    private static final Map<String, ResultWriter> sinks = new LinkedHashMap<>();
+
     public static void main(String[] args) {
+        if (args.length == 0) {
+            runInteractive();
+            return;
+        }
+        int status = 0;
+        try {
+            if (args[0].equals("--batch") && args.length == 2) {
+                status = runBatch(args[1]);
+            } else {
+                run(args);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            status = 2;
+        } finally {
+            closeSinks();
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    // One run per non-empty line, each line holding the options of one command line.
+    // Workloads and output files stay open between lines.
+    private static int runBatch(String source) throws IOException {
+        int failures = 0;
+        try (BufferedReader reader = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : new BufferedReader(new FileReader(source, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    run(line.split("\\s+"));
+                } catch (IllegalArgumentException | IOException e) {
+                    System.err.println("Line " + lineNumber + ": " + e.getMessage());
+                    failures++;
+                }
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    private static void run(String[] args) throws IOException {
+        String workload = null;
+        String schedulers = "all";
+        int[] rrQuanta = {};
+        int[] contextSwitches = {0};
+        int[] agingIntervals = {};
+        ResultWriter.Format format = null;
+        String out = null;
+        boolean summaryOnly = false;
+        boolean compare = false;
+        boolean sweep = false;
+        boolean cutOff = true;
+        int cpus = 0;
+        MultiCoreScheduler.Placement placement = null;
+        boolean workStealing = true;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--workload":
+                    workload = value(args, ++i);
+                    break;
+                case "--scheduler":
+                    schedulers = value(args, ++i);
+                    break;
+                case "--rr-quantum":
+                    rrQuanta = intValues(args, ++i);
+                    break;
+                case "--context-switch":
+                    contextSwitches = intValues(args, ++i);
+                    break;
+                case "--aging-interval":
+                    agingIntervals = intValues(args, ++i);
+                    break;
+                case "--format":
+                    format = formatValue(value(args, ++i));
+                    break;
+                case "--out":
+                    out = value(args, ++i);
+                    break;
+                case "--summary":
+                    summaryOnly = true;
+                    break;
+                case "--compare":
+                    compare = true;
+                    break;
+                case "--sweep":
+                    sweep = true;
+                    break;
+                case "--no-cut-off":
+                    cutOff = false;
+                    break;
+                case "--cpus":
+                    int[] cpuCounts = intValues(args, ++i);
+                    if (cpuCounts.length > 1 || cpuCounts[0] < 1) {
+                        throw new IllegalArgumentException("--cpus needs one positive number");
+                    }
+                    cpus = cpuCounts[0];
+                    break;
+                case "--placement":
+                    placement = placementValue(value(args, ++i));
+                    break;
+                case "--no-stealing":
+                    workStealing = false;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (workload == null) {
+            throw new IllegalArgumentException("--workload is required");
+        }
+
+        List<SchedulerType> types = new ArrayList<>();
+        if (schedulers.equalsIgnoreCase("all")) {
+            types.addAll(Arrays.asList(SchedulerType.values()));
+        } else {
+            for (String name : schedulers.split(",")) {
+                types.add(SchedulerType.fromName(name.trim()));
+            }
+        }
+        if (types.contains(SchedulerType.RR) && (rrQuanta.length == 0 || Arrays.stream(rrQuanta).min().getAsInt() <= 0)) {
+            throw new IllegalArgumentException("RR needs a positive --rr-quantum");
+        }
+        if (types.contains(SchedulerType.PRIORITY) && (agingIntervals.length == 0 || Arrays.stream(agingIntervals).min().getAsInt() <= 0)) {
+            throw new IllegalArgumentException("Priority needs a positive --aging-interval");
+        }
+
+        if (sweep && format != null && format != ResultWriter.Format.JSON_LINES) {
+            throw new IllegalArgumentException("--sweep writes JSON lines, not " + formatName(format));
+        }
+        if (sweep && compare) {
+            throw new IllegalArgumentException("--sweep and --compare cannot be used together");
+        }
+        if (cpus > 0) {
+            // The multi-core report is text: a summary per scheduler, with or without the per-CPU lines
+            if (sweep || compare) {
+                throw new IllegalArgumentException("--cpus cannot be used with " + (sweep ? "--sweep" : "--compare"));
+            }
+            if (format != null && format != ResultWriter.Format.TEXT) {
+                throw new IllegalArgumentException("--cpus writes a text report, not " + formatName(format));
+            }
+        } else if (placement != null || !workStealing) {
+            throw new IllegalArgumentException((placement != null ? "--placement" : "--no-stealing") + " needs --cpus");
+        }
+        if (format == null) {
+            format = sweep ? ResultWriter.Format.JSON_LINES : ResultWriter.Format.TEXT;
+        }
+
+        if (sweep) {
+            ParameterSweep parameterSweep = new ParameterSweep(loadWorkload(Paths.get(workload)));
+            parameterSweep.setSchedulers(types);
+            parameterSweep.setRrQuanta(rrQuanta);
+            parameterSweep.setContextSwitches(contextSwitches);
+            parameterSweep.setAgingIntervals(agingIntervals);
+            parameterSweep.setCutOff(cutOff);
+            runSweep(parameterSweep, sink(out != null ? out : "-", format, summaryOnly));
+            return;
+        }
+        boolean perCpuSwitches = cpus > 1 && contextSwitches.length == cpus;
+        if (rrQuanta.length > 1 || (contextSwitches.length > 1 && !perCpuSwitches) || agingIntervals.length > 1) {
+            throw new IllegalArgumentException("Lists of values need --sweep, or one context switch time per CPU with --cpus");
+        }
+        int rrQuantum = rrQuanta.length > 0 ? rrQuanta[0] : -1;
+        int contextSwitch = contextSwitches[0];
+        int agingInterval = agingIntervals.length > 0 ? agingIntervals[0] : -1;
+
+        if (cpus > 0) {
+            int[] switchTimes = perCpuSwitches ? contextSwitches : new int[cpus];
+            if (!perCpuSwitches) {
+                Arrays.fill(switchTimes, contextSwitch);
+            }
+            runMultiCore(loadWorkload(Paths.get(workload)), types, switchTimes, rrQuantum, agingInterval,
+                    placement != null ? placement : MultiCoreScheduler.Placement.LEAST_LOADED, workStealing,
+                    sink(out != null ? out : "-", format, summaryOnly));
+            return;
+        }
+
+        // The schedulers run concurrently, each on its own copy of the workload
+        SchedulerComparison comparison = SchedulerComparison.run(loadWorkload(Paths.get(workload)), types,
+                contextSwitch, rrQuantum, agingInterval, ForkJoinPool.commonPool());
+        if (!compare || out != null) {
+            ResultWriter writer = sink(out != null ? out : "-", format, summaryOnly);
+            for (SchedulerComparison.Entry entry : comparison.getEntries()) {
+                writer.write(entry.getType().getLabel(), entry.getScheduler());
+            }
+            writer.flush();
+        }
+        if (compare) {
+            comparison.writeTable(System.out);
+            System.out.flush();
+        }
+        for (SchedulerComparison.Entry entry : comparison.getEntries()) {
+            entry.getScheduler().getTimeline().close();
+        }
+    }
+
+    // A report per scheduler: the summary, then utilization and migrations per CPU unless only
+    // summaries are written
+    private static void runMultiCore(ProcessTable template, List<SchedulerType> types, int[] switchTimes, int rrQuantum,
+                                     int agingInterval, MultiCoreScheduler.Placement placement, boolean workStealing,
+                                     ResultWriter writer) throws IOException {
+        StringBuilder report = new StringBuilder(1024);
+        try {
+            for (SchedulerType type : types) {
+                MultiCoreScheduler scheduler = new MultiCoreScheduler(type, template.copy(), switchTimes, rrQuantum, agingInterval);
+                try {
+                    scheduler.setPlacement(placement);
+                    scheduler.setWorkStealing(workStealing);
+                    scheduler.schedule();
+                    report.setLength(0);
+                    scheduler.writeReport(report, !writer.isSummaryOnly());
+                    writer.writeText(report.append('\n'));
+                } finally {
+                    scheduler.close();
+                }
+            }
+        } finally {
+            writer.flush();
+        }
+    }
+
+    // One JSON line per point as it finishes, then one per Pareto-best point
+    private static void runSweep(ParameterSweep sweep, ResultWriter writer) throws IOException {
+        try {
+            List<ParameterSweep.Point> points = sweep.run(point -> {
+                try {
+                    writer.writeText(pointJson("point", point));
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            for (ParameterSweep.Point point : ParameterSweep.paretoBest(points)) {
+                writer.writeText(pointJson("paretoBest", point));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            writer.flush();
+        }
+    }
+
+    private static String pointJson(String type, ParameterSweep.Point point) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"type\":\"").append(type).append('"');
+        json.append(",\"scheduler\":\"").append(point.getType().getLabel()).append('"');
+        json.append(",\"contextSwitch\":").append(point.getContextSwitch());
+        if (point.getRrQuantum() >= 0) {
+            json.append(",\"rrQuantum\":").append(point.getRrQuantum());
+        }
+        if (point.getAgingInterval() >= 0) {
+            json.append(",\"agingInterval\":").append(point.getAgingInterval());
+        }
+        json.append(",\"cutOff\":").append(point.isCutOff());
+        json.append(",\"completed\":").append(point.getCompletedCount());
+        json.append(String.format(Locale.ROOT, ",\"averageWaitingTime\":%.2f,\"averageTurnaroundTime\":%.2f",
+                point.getAverageWaitingTime(), point.getAverageTurnaroundTime()));
+        json.append(",\"p50WaitingTime\":").append(point.getP50WaitingTime());
+        json.append(",\"p95WaitingTime\":").append(point.getP95WaitingTime());
+        json.append(",\"p99WaitingTime\":").append(point.getP99WaitingTime());
+        json.append(",\"maxTurnaroundTime\":").append(point.getMaxTurnaroundTime());
+        json.append(String.format(Locale.ROOT, ",\"wallTimeMs\":%.3f}", point.getWallTimeMillis()));
+        return json.append('\n').toString();
+    }
+
+    private static ProcessTable loadWorkload(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        ProcessTable template = workloads.get(key);
+        if (template == null) {
+            template = WorkloadLoader.loadTable(file);
+            workloads.put(key, template);
+        }
+        return template;
+    }
+
+    // A file is opened once and keeps the format it was opened with, as a second writer on it
+    // would truncate it. Standard output is never truncated, so it gets a writer per format.
+    private static ResultWriter sink(String out, ResultWriter.Format format, boolean summaryOnly) throws IOException {
+        String key = out.equals("-")
+                ? "-|" + format + "|" + summaryOnly
+                : Paths.get(out).toAbsolutePath().normalize().toString();
+        ResultWriter writer = sinks.get(key);
+        if (writer == null) {
+            writer = out.equals("-")
+                    ? ResultWriter.open(format, System.out, summaryOnly)
+                    : ResultWriter.open(format, Paths.get(out), summaryOnly);
+            sinks.put(key, writer);
+        } else if (writer.getFormat() != format || writer.isSummaryOnly() != summaryOnly) {
+            throw new IllegalArgumentException(out + " is already open for " + describe(writer.getFormat(), writer.isSummaryOnly())
+                    + ", not " + describe(format, summaryOnly));
+        }
+        return writer;
+    }
+
+    private static String describe(ResultWriter.Format format, boolean summaryOnly) {
+        return formatName(format) + (summaryOnly ? " summaries" : " results");
+    }
+
+    // The name --format takes
+    private static String formatName(ResultWriter.Format format) {
+        return format == ResultWriter.Format.JSON_LINES ? "jsonl" : format.toString().toLowerCase();
+    }
+
+    private static void closeSinks() {
+        for (Map.Entry<String, ResultWriter> sink : sinks.entrySet()) {
+            try {
+                // Standard output is flushed but left open
+                if (sink.getKey().startsWith("-|")) {
+                    sink.getValue().flush();
+                } else {
+                    sink.getValue().close();
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing results: " + e.getMessage());
+            }
+        }
+        sinks.clear();
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        }
+        return args[i];
+    }
+
+    // A number, a comma separated list, or a range FROM..TO with an optional :STEP
+    private static int[] intValues(String[] args, int i) {
+        String value = value(args, i);
+        List<Integer> values = new ArrayList<>();
+        try {
+            for (String part : value.split(",")) {
+                int range = part.indexOf("..");
+                if (range < 0) {
+                    values.add(Integer.parseInt(part.trim()));
+                    continue;
+                }
+                int colon = part.indexOf(':', range);
+                int from = Integer.parseInt(part.substring(0, range).trim());
+                int to = Integer.parseInt(part.substring(range + 2, colon < 0 ? part.length() : colon).trim());
+                int step = colon < 0 ? 1 : Integer.parseInt(part.substring(colon + 1).trim());
+                if (step <= 0) {
+                    throw new IllegalArgumentException(args[i - 1] + " needs a positive step, not " + step);
+                }
+                for (long v = from; v <= to; v += step) {
+                    values.add((int) v);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[i - 1] + " needs numbers, not " + value);
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException(args[i - 1] + " needs at least one value, and " + value + " has none");
+        }
+        int[] result = new int[values.size()];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = values.get(k);
+        }
+        return result;
+    }
+
+    private static MultiCoreScheduler.Placement placementValue(String value) {
+        switch (value.toLowerCase()) {
+            case "round-robin":
+                return MultiCoreScheduler.Placement.ROUND_ROBIN;
+            case "least-loaded":
+                return MultiCoreScheduler.Placement.LEAST_LOADED;
+            default:
+                throw new IllegalArgumentException("Unknown placement " + value + " (expected round-robin or least-loaded)");
+        }
+    }
+
+    private static ResultWriter.Format formatValue(String value) {
+        switch (value.toLowerCase()) {
+            case "text":
+                return ResultWriter.Format.TEXT;
+            case "csv":
+                return ResultWriter.Format.CSV;
+            case "jsonl":
+            case "json-lines":
+                return ResultWriter.Format.JSON_LINES;
+            default:
+                throw new IllegalArgumentException("Unknown format " + value + " (expected text, csv or jsonl)");
+        }
+    }
+
+    private static void runInteractive() {
+        InputParser parser = new InputParser();
         while (true) {
 
             System.out.println("CPU Schedulers Simulator\n");
 
-            InputParser parser = new InputParser();
-
             // Get input
             List<Process> processes = parser.parseProcesses();
             int rrQuantum = parser.readInt("Round Robin time quantum: ");
@@ -47,4 +483,4 @@ public class Main {
             }
         }
     }
-}
\ No newline at end of file
+}
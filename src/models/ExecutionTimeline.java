@@ -0,0 +1,444 @@
+package models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Record of who held the CPU and when during one scheduling run, kept as
+// (process id, start, end) segments packed into int chunks. Contiguous slices
+// of the same process merge into one segment. Once the chunks held in memory
+// pass the memory budget, the oldest ones are written to a temp file and read
+// back on demand.
+// A stretch of rounds that repeat the same rotation is stored once: the
+// segments of the first round, then one record saying how many more times
+// they repeat and how far apart.
+// The execution order (process names, consecutive repeats collapsed) is a
+// read-only view derived from the segments.
+public class ExecutionTimeline {
+    public interface SegmentVisitor {
+        void visit(int processId, int start, int end);
+    }
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    private static final int RECORD_INTS = 3;
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_INTS * Integer.BYTES;
+    // Flags in the first int of a record; the low bits hold a process id, or
+    // for a repeat record the number of segments repeated
+    private static final int CONTINUATION = 1 << 29; // same process as the segment before, after a gap
+    private static final int REPEAT = 1 << 30;       // (REPEAT | count, times, period)
+    private static final int VALUE_MASK = CONTINUATION - 1;
+
+    private final ProcessTable table;
+    private final long memoryBudget;
+
+    private int[][] chunks = new int[16][];
+    // Execution order index of the first entry contributed by each chunk
+    private long[] chunkOrderStart = new long[16];
+    // Start time of the first segment of each chunk
+    private int[] chunkStartTime = new int[16];
+    private int chunkCount = 0;
+    private long recordCount = 0;
+    // Chunks below this index live in the spill file
+    private int spilledChunks = 0;
+    private FileChannel spillFile;
+    private ByteBuffer ioBuffer;
+    private final int[] cachedChunk = {-1, -1};
+    private final int[][] cachedData = new int[2][];
+    private int nextCacheSlot = 0;
+
+    // Latest segment, kept out of the chunks so the next slice can still merge into it
+    private int pendingId = -1;
+    private int pendingStart;
+    private int pendingEnd;
+    private boolean pendingContinuation;
+
+    private int lastId = -1;
+    private long committedOrderSize = 0;
+    private long orderSize = 0;
+    private long segmentCount = 0;
+
+    // Position of the last execution order lookup, so reading in order costs O(1) per entry
+    private long cursorRecord = -1;
+    private long cursorOrderStart;
+
+    private final List<String> view = new AbstractList<String>() {
+        @Override
+        public String get(int index) {
+            return table.getName(processAt(index));
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(orderSize, Integer.MAX_VALUE);
+        }
+    };
+
+    public ExecutionTimeline(ProcessTable table) {
+        this(table, DEFAULT_MEMORY_BUDGET);
+    }
+
+    public ExecutionTimeline(ProcessTable table, long memoryBudget) {
+        if (table.size() > VALUE_MASK) {
+            throw new IllegalArgumentException("Too many processes for a timeline: " + table.size());
+        }
+        this.table = table;
+        this.memoryBudget = memoryBudget;
+    }
+
+    // Record that the process held the CPU from start to end
+    public void record(int processId, int start, int end) {
+        if (processId == pendingId && start == pendingEnd) {
+            pendingEnd = end;
+            return;
+        }
+        flushPending();
+        pendingId = processId;
+        pendingStart = start;
+        pendingEnd = end;
+        pendingContinuation = processId == lastId;
+        if (!pendingContinuation) {
+            orderSize++;
+        }
+        segmentCount++;
+        lastId = processId;
+    }
+
+    // The last count segments happen again times more times, each round period later than
+    // the one before. They must have been recorded as separate segments (so not merged into
+    // an earlier slice), and for two or more, consecutive ids must differ, including the last
+    // and the first.
+    public void repeat(int count, int times, int period) {
+        if (times <= 0) {
+            return;
+        }
+        flushPending();
+        if (count < 1 || count > recordCount) {
+            throw new IllegalArgumentException("Cannot repeat " + count + " of " + recordCount + " segments");
+        }
+        long first = recordCount - count;
+        int previousId = count > 1 ? recordId(recordCount - 1) : -1;
+        for (long r = first; r < recordCount; r++) {
+            if ((readRecord(r, 0) & REPEAT) != 0) {
+                throw new IllegalArgumentException("Cannot repeat a repeated rotation");
+            }
+            if (count > 1 && recordId(r) == previousId) {
+                throw new IllegalArgumentException("Rotation repeats process " + previousId);
+            }
+            previousId = recordId(r);
+        }
+
+        appendRecord(REPEAT | count, times, period, readRecord(first, 1) + period);
+        long added = count > 1 ? (long) times * count : 0;
+        committedOrderSize += added;
+        orderSize += added;
+        segmentCount += (long) times * count;
+    }
+
+    // Id of the process at the given position of the execution order
+    public int processAt(long index) {
+        Objects.checkIndex(index, orderSize);
+        if (pendingId >= 0 && index >= committedOrderSize) {
+            return pendingId;
+        }
+
+        int chunk = chunkForOrderIndex(index);
+        if (cursorRecord < 0 || cursorOrderStart > index || (cursorRecord >>> CHUNK_SHIFT) < chunk) {
+            cursorRecord = (long) chunk << CHUNK_SHIFT;
+            cursorOrderStart = chunkOrderStart[chunk];
+        }
+        while (true) {
+            long entries = orderEntries(cursorRecord);
+            if (index < cursorOrderStart + entries) {
+                break;
+            }
+            cursorOrderStart += entries;
+            cursorRecord++;
+        }
+
+        int head = readRecord(cursorRecord, 0);
+        if ((head & REPEAT) == 0) {
+            return head & VALUE_MASK;
+        }
+        int count = head & VALUE_MASK;
+        int position = (int) ((index - cursorOrderStart) % count);
+        return recordId(cursorRecord - count + position);
+    }
+
+    // Visit every segment in time order, with repeated rotations expanded
+    public void forEachSegment(SegmentVisitor visitor) {
+        for (long r = 0; r < recordCount; r++) {
+            int head = readRecord(r, 0);
+            if ((head & REPEAT) == 0) {
+                visitor.visit(head & VALUE_MASK, readRecord(r, 1), readRecord(r, 2));
+                continue;
+            }
+            int count = head & VALUE_MASK;
+            int times = readRecord(r, 1);
+            int period = readRecord(r, 2);
+            for (int t = 1; t <= times; t++) {
+                int shift = t * period;
+                for (long base = r - count; base < r; base++) {
+                    visitor.visit(recordId(base), readRecord(base, 1) + shift, readRecord(base, 2) + shift);
+                }
+            }
+        }
+        if (pendingId >= 0) {
+            visitor.visit(pendingId, pendingStart, pendingEnd);
+        }
+    }
+
+    // Id of the process holding the CPU at the given time, or -1 if the CPU is idle or
+    // switching. Segments cover [start, end). O(log n) in the number of segments.
+    public int processRunningAt(int time) {
+        long segment = findSegment(time);
+        return segment < 0 ? -1 : (int) (segment >>> 32);
+    }
+
+    // End of the segment running at the given time, or -1 if nothing runs then
+    public int runningUntil(int time) {
+        long segment = findSegment(time);
+        return segment < 0 ? -1 : (int) segment;
+    }
+
+    // Id of the process that got the CPU last, or -1 if none has
+    public int lastProcess() {
+        return lastId;
+    }
+
+    // Number of entries in the execution order
+    public long size() {
+        return orderSize;
+    }
+
+    // Number of segments, with repeated rotations expanded
+    public long segmentCount() {
+        return segmentCount;
+    }
+
+    public boolean isEmpty() {
+        return orderSize == 0;
+    }
+
+    // Read-only view of the process names in execution order
+    public List<String> asList() {
+        return view;
+    }
+
+    // Release the spill file, if there is one. The timeline can no longer be read afterwards.
+    public void close() {
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            spillFile = null;
+        }
+    }
+
+    private void flushPending() {
+        if (pendingId < 0) {
+            return;
+        }
+        appendRecord(pendingContinuation ? CONTINUATION | pendingId : pendingId, pendingStart, pendingEnd, pendingStart);
+        if (!pendingContinuation) {
+            committedOrderSize++;
+        }
+        pendingId = -1;
+    }
+
+    // time is when the record's first segment starts
+    private void appendRecord(int head, int start, int end, int time) {
+        int offset = (int) (recordCount & (CHUNK_RECORDS - 1)) * RECORD_INTS;
+        if (offset == 0) {
+            startChunk(time);
+        }
+        int[] chunk = chunks[chunkCount - 1];
+        chunk[offset] = head;
+        chunk[offset + 1] = start;
+        chunk[offset + 2] = end;
+        recordCount++;
+    }
+
+    private void startChunk(int time) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            chunkOrderStart = Arrays.copyOf(chunkOrderStart, chunkCount * 2);
+            chunkStartTime = Arrays.copyOf(chunkStartTime, chunkCount * 2);
+        }
+        int[] data = null;
+        // Keep the chunk being written plus as many recent ones as the budget allows
+        if ((long) (chunkCount - spilledChunks + 1) * CHUNK_BYTES > memoryBudget && spilledChunks < chunkCount) {
+            data = chunks[spilledChunks];
+            spill(spilledChunks, data);
+            chunks[spilledChunks] = null;
+            spilledChunks++;
+        }
+        chunks[chunkCount] = data != null ? data : new int[CHUNK_RECORDS * RECORD_INTS];
+        chunkOrderStart[chunkCount] = committedOrderSize;
+        chunkStartTime[chunkCount] = time;
+        chunkCount++;
+    }
+
+    private void spill(int chunk, int[] data) {
+        try {
+            if (spillFile == null) {
+                Path path = Files.createTempFile("timeline", ".bin");
+                path.toFile().deleteOnExit();
+                spillFile = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                ioBuffer = ByteBuffer.allocateDirect(CHUNK_BYTES);
+            }
+            ioBuffer.clear();
+            ioBuffer.asIntBuffer().put(data);
+            long position = (long) chunk * CHUNK_BYTES;
+            while (ioBuffer.hasRemaining()) {
+                position += spillFile.write(ioBuffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int[] chunkData(int chunk) {
+        if (chunk >= spilledChunks) {
+            return chunks[chunk];
+        }
+        for (int slot = 0; slot < cachedChunk.length; slot++) {
+            if (cachedChunk[slot] == chunk) {
+                return cachedData[slot];
+            }
+        }
+        int slot = nextCacheSlot;
+        nextCacheSlot = (nextCacheSlot + 1) % cachedChunk.length;
+        if (cachedData[slot] == null) {
+            cachedData[slot] = new int[CHUNK_RECORDS * RECORD_INTS];
+        }
+        try {
+            ioBuffer.clear();
+            long position = (long) chunk * CHUNK_BYTES;
+            while (ioBuffer.hasRemaining()) {
+                int read = spillFile.read(ioBuffer, position);
+                if (read < 0) {
+                    throw new IOException("Timeline spill file is truncated");
+                }
+                position += read;
+            }
+            ioBuffer.flip();
+            IntBuffer ints = ioBuffer.asIntBuffer();
+            ints.get(cachedData[slot]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        cachedChunk[slot] = chunk;
+        return cachedData[slot];
+    }
+
+    private int readRecord(long record, int field) {
+        int[] data = chunkData((int) (record >>> CHUNK_SHIFT));
+        return data[(int) (record & (CHUNK_RECORDS - 1)) * RECORD_INTS + field];
+    }
+
+    private int recordId(long record) {
+        return readRecord(record, 0) & VALUE_MASK;
+    }
+
+    // Number of execution order entries a committed record contributes
+    private long orderEntries(long record) {
+        int head = readRecord(record, 0);
+        if ((head & REPEAT) != 0) {
+            int count = head & VALUE_MASK;
+            return count > 1 ? (long) readRecord(record, 1) * count : 0;
+        }
+        return (head & CONTINUATION) != 0 ? 0 : 1;
+    }
+
+    // Segment covering time as (id << 32 | end), or -1
+    private long findSegment(int time) {
+        if (pendingId >= 0 && time >= pendingStart) {
+            return time < pendingEnd ? packSegment(pendingId, pendingEnd) : -1;
+        }
+        if (recordCount == 0 || chunkStartTime[0] > time) {
+            return -1;
+        }
+
+        // Last chunk, then last record, starting at or before time
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunkStartTime[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        long first = (long) low << CHUNK_SHIFT;
+        long record = lastRecordStartingBy(first, Math.min(recordCount, first + CHUNK_RECORDS) - 1, time);
+
+        int head = readRecord(record, 0);
+        if ((head & REPEAT) == 0) {
+            return time < readRecord(record, 2) ? packSegment(head & VALUE_MASK, readRecord(record, 2)) : -1;
+        }
+
+        // Shift time back into the first round of the repeated rotation
+        int count = head & VALUE_MASK;
+        int times = readRecord(record, 1);
+        int period = readRecord(record, 2);
+        long base = record - count;
+        long round = Math.min(times, ((long) time - readRecord(base, 1)) / period);
+        int shifted = (int) (time - round * period);
+        long match = lastRecordStartingBy(base, record - 1, shifted);
+        int end = readRecord(match, 2);
+        return shifted < end ? packSegment(recordId(match), (int) (end + round * period)) : -1;
+    }
+
+    // Last record in [low, high] whose first segment starts at or before time; low must qualify
+    private long lastRecordStartingBy(long low, long high, int time) {
+        while (low < high) {
+            long mid = (low + high + 1) >>> 1;
+            if (recordStartTime(mid) <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int recordStartTime(long record) {
+        int head = readRecord(record, 0);
+        if ((head & REPEAT) == 0) {
+            return readRecord(record, 1);
+        }
+        return readRecord(record - (head & VALUE_MASK), 1) + readRecord(record, 2);
+    }
+
+    private static long packSegment(int id, int end) {
+        return ((long) id << 32) | (end & 0xffffffffL);
+    }
+
+    // Last chunk whose first entry is at or before index
+    private int chunkForOrderIndex(long index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunkOrderStart[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
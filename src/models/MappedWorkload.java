@@ -0,0 +1,196 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary workload file, read through a memory mapping without copying.
+// All values are little-endian ints, laid out in the same columns as ProcessTable:
+//   header   magic, version, process count, reserved, name table offset (long), name data length (long)
+//   columns  arrival[n], burst[n], priority[n], quantum[n]  (NO_QUANTUM when a process has none)
+//   names    n + 1 offsets into the name data, then the UTF-8 name data
+public class MappedWorkload {
+    public static final int MAGIC = 0x57484353; // "SCHW" in file byte order
+    public static final int VERSION = 1;
+    public static final int NO_QUANTUM = Integer.MIN_VALUE;
+    private static final int HEADER_BYTES = 32;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final IntBuffer arrivalTime;
+    private final IntBuffer burstTime;
+    private final IntBuffer priority;
+    private final IntBuffer quantum;
+    private final IntBuffer nameOffsets;
+    private final int nameDataStart;
+
+    private MappedWorkload(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary workload file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary workload version " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        long nameTableOffset = buffer.getLong(16);
+        long nameDataLength = buffer.getLong(24);
+        long expected = nameTableOffset + 4L * (count + 1) + nameDataLength;
+        if (count < 0 || nameTableOffset != HEADER_BYTES + 16L * count || expected != buffer.capacity()) {
+            throw new IOException("Binary workload file is truncated or corrupt");
+        }
+        this.arrivalTime = column(HEADER_BYTES, count);
+        this.burstTime = column(HEADER_BYTES + 4 * count, count);
+        this.priority = column(HEADER_BYTES + 8 * count, count);
+        this.quantum = column(HEADER_BYTES + 12 * count, count);
+        this.nameOffsets = column((int) nameTableOffset, count + 1);
+        this.nameDataStart = (int) nameTableOffset + 4 * (count + 1);
+
+        // Names are read lazily, so check every offset now rather than fail part way through a run
+        int previous = 0;
+        for (int i = 0; i <= count; i++) {
+            int offset = nameOffsets.get(i);
+            if (offset < previous || (i == 0 && offset != 0)) {
+                throw new IOException("Binary workload file is truncated or corrupt");
+            }
+            previous = offset;
+        }
+        if (previous != nameDataLength) {
+            throw new IOException("Binary workload file is truncated or corrupt");
+        }
+    }
+
+    // Map the whole file read-only; the mapping stays valid after the channel is closed
+    public static MappedWorkload open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary workload files are limited to 2 GB");
+            }
+            return new MappedWorkload(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Write the table's workload input: arrival and burst times, current priorities and initial quanta
+    public static void write(ProcessTable table, Path file) throws IOException {
+        int n = table.size();
+        int[] nameLengths = new int[n];
+        long nameDataLength = 0;
+        for (int id = 0; id < n; id++) {
+            nameLengths[id] = table.getName(id).getBytes(StandardCharsets.UTF_8).length;
+            nameDataLength += nameLengths[id];
+        }
+        long nameTableOffset = HEADER_BYTES + 16L * n;
+        if (nameTableOffset + 4L * (n + 1) + nameDataLength > Integer.MAX_VALUE) {
+            throw new IOException("Workload is too large for a binary workload file");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0).putLong(nameTableOffset).putLong(nameDataLength);
+            for (int column = 0; column < 4; column++) {
+                for (int id = 0; id < n; id++) {
+                    int value;
+                    if (column == 0) {
+                        value = table.getArrivalTime(id);
+                    } else if (column == 1) {
+                        value = table.getBurstTime(id);
+                    } else if (column == 2) {
+                        value = table.getPriority(id);
+                    } else {
+                        value = table.hasInitialQuantum(id) ? table.getInitialQuantum(id) : NO_QUANTUM;
+                    }
+                    ensureRoom(channel, out, 4);
+                    out.putInt(value);
+                }
+            }
+            int offset = 0;
+            for (int id = 0; id <= n; id++) {
+                ensureRoom(channel, out, 4);
+                out.putInt(offset);
+                if (id < n) {
+                    offset += nameLengths[id];
+                }
+            }
+            for (int id = 0; id < n; id++) {
+                byte[] name = table.getName(id).getBytes(StandardCharsets.UTF_8);
+                for (int written = 0; written < name.length; ) {
+                    ensureRoom(channel, out, 1);
+                    int length = Math.min(out.remaining(), name.length - written);
+                    out.put(name, written, length);
+                    written += length;
+                }
+            }
+            drain(channel, out);
+        }
+    }
+
+    private static void ensureRoom(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            drain(channel, out);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getArrivalTime(int id) {
+        return arrivalTime.get(id);
+    }
+
+    public int getBurstTime(int id) {
+        return burstTime.get(id);
+    }
+
+    public int getPriority(int id) {
+        return priority.get(id);
+    }
+
+    // Initial quantum, or NO_QUANTUM if the process has none
+    public int getQuantum(int id) {
+        return quantum.get(id);
+    }
+
+    public String getName(int id) {
+        int start = nameOffsets.get(id);
+        int end = nameOffsets.get(id + 1);
+        byte[] bytes = new byte[end - start];
+        buffer.get(nameDataStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Views of the mapped columns, indexed by process id
+    IntBuffer arrivalColumn() {
+        return arrivalTime;
+    }
+
+    IntBuffer burstColumn() {
+        return burstTime;
+    }
+
+    IntBuffer priorityColumn() {
+        return priority;
+    }
+
+    IntBuffer quantumColumn() {
+        return quantum;
+    }
+
+    private IntBuffer column(int offset, int length) {
+        return buffer.slice(offset, 4 * length).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Process {
+    private int id;
     private String name;
     private int arrivalTime;
     private int burstTime;
@@ -13,10 +14,11 @@ public class Process {
     private int waitingTime;
     private int turnaroundTime;
     private int completionTime;
-    private List<Integer> quantumHistory;
+    private QuantumHistory quantumHistory;
     private List<String> executionOrder;
 
     public Process(String name, int arrivalTime, int burstTime, int priority) {
+        this.id = -1;
         this.name = name;
         this.arrivalTime = arrivalTime;
         this.burstTime = burstTime;
@@ -26,12 +28,13 @@ public class Process {
         this.waitingTime = 0;
         this.turnaroundTime = 0;
         this.completionTime = 0;
-        this.quantumHistory = new ArrayList<>();
+        this.quantumHistory = new QuantumHistory();
         this.executionOrder = new ArrayList<>();
     }
 
     // Constructor with quantum for AG Scheduler
     public Process(String name, int arrivalTime, int burstTime, int priority, int quantum) {
+        this.id = -1;
         this.name = name;
         this.arrivalTime = arrivalTime;
         this.burstTime = burstTime;
@@ -41,12 +44,16 @@ public class Process {
         this.waitingTime = 0;
         this.turnaroundTime = 0;
         this.completionTime = 0;
-        this.quantumHistory = new ArrayList<>();
+        this.quantumHistory = new QuantumHistory();
         this.quantumHistory.add(quantum);
         this.executionOrder = new ArrayList<>();
     }
 
     // Getters
+    // Dense index (0..n-1) of the process in its workload, assigned when the input is parsed
+    public int getId() {
+        return id;
+    }
     public String getName() {
         return name;
     }
@@ -74,7 +81,11 @@ public class Process {
     public int getCompletionTime() {
         return completionTime;
     }
+    // Read-only view of the quantum history
     public List<Integer> getQuantumHistory() {
+        return quantumHistory.asList();
+    }
+    public QuantumHistory getQuantumHistoryLog() {
         return quantumHistory;
     }
     public List<String> getExecutionOrder() {
@@ -82,6 +93,9 @@ public class Process {
     }
 
     // Setters
+    public void setId(int id) {
+        this.id = id;
+    }
     public void setRemainingTime(int remainingTime) {
         this.remainingTime = remainingTime;
     }
@@ -101,6 +115,9 @@ public class Process {
         this.completionTime = completionTime;
     }
     public void setQuantumHistory(List<Integer> quantumHistory) {
+        this.quantumHistory = QuantumHistory.of(QuantumHistory.Mode.FULL, quantumHistory);
+    }
+    public void setQuantumHistory(QuantumHistory quantumHistory) {
         this.quantumHistory = quantumHistory;
     }
     public void setExecutionOrder(List<String> executionOrder) {
@@ -0,0 +1,370 @@
+package models;
+
+import java.nio.IntBuffer;
+import java.util.*;
+
+// Column-oriented process storage: one primitive array per field instead of
+// one object per process, with rows addressed by process id (0..n-1).
+// Schedulers run directly against the table; Process objects are only built
+// when a caller asks for them. The read-only input columns may live in a
+// memory-mapped workload file; names from such a file are decoded on first use.
+public class ProcessTable {
+    // Workload input
+    private final String[] names;
+    private final IntBuffer arrivalTime;
+    private final IntBuffer burstTime;
+    private final IntBuffer initialQuantum;
+    private final MappedWorkload source;
+
+    // Scheduling state
+    private final int[] remainingTime;
+    private final int[] priority;
+    private final int[] quantum;
+    private final int[] completionTime;
+    private final int[] waitingTime;
+    private final int[] turnaroundTime;
+    // Rows that never changed quantum have no history object; theirs is just the initial quantum
+    private final QuantumHistory[] quantumHistory;
+    // Rows loaded without a quantum start with an empty history, like the four-argument Process
+    private BitSet withoutQuantum = null;
+    private QuantumHistory.Mode quantumHistoryMode = QuantumHistory.Mode.FULL;
+    private List<String> executionOrder = null;
+
+    // The arrays are used as they are, not copied. Every process starts with
+    // its full burst remaining and its initial quantum as the first history entry.
+    public ProcessTable(String[] names, int[] arrivalTime, int[] burstTime, int[] priority, int[] quantum) {
+        int n = names.length;
+        if (arrivalTime.length != n || burstTime.length != n || priority.length != n || quantum.length != n) {
+            throw new IllegalArgumentException("All columns must have " + n + " rows");
+        }
+        this.names = names;
+        this.arrivalTime = IntBuffer.wrap(arrivalTime);
+        this.burstTime = IntBuffer.wrap(burstTime);
+        this.initialQuantum = IntBuffer.wrap(quantum.clone());
+        this.source = null;
+        this.remainingTime = burstTime.clone();
+        this.priority = priority;
+        this.quantum = quantum;
+        this.completionTime = new int[n];
+        this.waitingTime = new int[n];
+        this.turnaroundTime = new int[n];
+        this.quantumHistory = new QuantumHistory[n];
+    }
+
+    // Read arrival and burst times and initial quanta straight from the mapped file.
+    // Priority and quantum change while scheduling, so those columns are copied.
+    public ProcessTable(MappedWorkload workload) {
+        int n = workload.size();
+        this.names = new String[n];
+        this.arrivalTime = workload.arrivalColumn();
+        this.burstTime = workload.burstColumn();
+        this.initialQuantum = workload.quantumColumn();
+        this.source = workload;
+        this.remainingTime = new int[n];
+        burstTime.get(0, remainingTime);
+        this.priority = new int[n];
+        workload.priorityColumn().get(0, priority);
+        this.quantum = new int[n];
+        initialQuantum.get(0, quantum);
+        this.completionTime = new int[n];
+        this.waitingTime = new int[n];
+        this.turnaroundTime = new int[n];
+        this.quantumHistory = new QuantumHistory[n];
+        for (int id = 0; id < n; id++) {
+            if (quantum[id] == MappedWorkload.NO_QUANTUM) {
+                quantum[id] = 0;
+                if (withoutQuantum == null) {
+                    withoutQuantum = new BitSet(n);
+                }
+                withoutQuantum.set(id);
+            }
+        }
+    }
+
+    // Same input columns, with copies of the state arrays
+    private ProcessTable(ProcessTable other) {
+        int n = other.size();
+        this.names = other.names;
+        this.arrivalTime = other.arrivalTime;
+        this.burstTime = other.burstTime;
+        this.initialQuantum = other.initialQuantum;
+        this.source = other.source;
+        this.remainingTime = other.remainingTime.clone();
+        this.priority = other.priority.clone();
+        this.quantum = other.quantum.clone();
+        this.completionTime = other.completionTime.clone();
+        this.waitingTime = other.waitingTime.clone();
+        this.turnaroundTime = other.turnaroundTime.clone();
+        this.quantumHistory = new QuantumHistory[n];
+        for (int id = 0; id < n; id++) {
+            if (other.quantumHistory[id] != null) {
+                quantumHistory[id] = other.quantumHistory[id].copy();
+            }
+        }
+        this.withoutQuantum = other.withoutQuantum;
+        this.quantumHistoryMode = other.quantumHistoryMode;
+    }
+
+    // A table over the same workload input with a copy of the current scheduling state.
+    // Copying a table that has not been scheduled yet gives a fresh table for another run
+    // without loading the workload again.
+    public ProcessTable copy() {
+        return new ProcessTable(this);
+    }
+
+    // Build a table holding the current state of the given processes, one row per id.
+    // Parsers number processes 0..n-1; lists built by hand without usable ids are numbered in list order,
+    // and the new ids are set on the processes so results can be copied back to them.
+    public static ProcessTable fromProcesses(List<Process> processes) {
+        return fromProcesses(processes, true);
+    }
+
+    // Like fromProcesses, but leaves the processes as they are: rows of a list without usable ids
+    // follow list order without the processes being renumbered
+    public static ProcessTable snapshotOf(List<Process> processes) {
+        return fromProcesses(processes, false);
+    }
+
+    private static ProcessTable fromProcesses(List<Process> processes, boolean renumber) {
+        Process[] byId = indexById(processes, renumber);
+        int n = byId.length;
+        String[] names = new String[n];
+        int[] arrival = new int[n];
+        int[] burst = new int[n];
+        int[] priority = new int[n];
+        int[] quantum = new int[n];
+        for (int id = 0; id < n; id++) {
+            names[id] = byId[id].getName();
+            arrival[id] = byId[id].getArrivalTime();
+            burst[id] = byId[id].getBurstTime();
+            priority[id] = byId[id].getPriority();
+            quantum[id] = byId[id].getQuantum();
+        }
+
+        ProcessTable table = new ProcessTable(names, arrival, burst, priority, quantum);
+        for (int id = 0; id < n; id++) {
+            Process p = byId[id];
+            table.remainingTime[id] = p.getRemainingTime();
+            table.completionTime[id] = p.getCompletionTime();
+            table.waitingTime[id] = p.getWaitingTime();
+            table.turnaroundTime[id] = p.getTurnaroundTime();
+            QuantumHistory history = p.getQuantumHistoryLog();
+            if (history.size() != 1 || history.getFirst() != p.getQuantum()) {
+                table.quantumHistory[id] = history.copy();
+            }
+        }
+        return table;
+    }
+
+    private static Process[] indexById(List<Process> processes, boolean renumber) {
+        Process[] byId = new Process[processes.size()];
+        for (Process p : processes) {
+            int id = p.getId();
+            if (id < 0 || id >= byId.length || byId[id] != null) {
+                for (int i = 0; i < byId.length; i++) {
+                    byId[i] = processes.get(i);
+                    if (renumber) {
+                        byId[i].setId(i);
+                    }
+                }
+                return byId;
+            }
+            byId[id] = p;
+        }
+        return byId;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    // Getters
+    public String getName(int id) {
+        if (names[id] == null && source != null) {
+            names[id] = source.getName(id);
+        }
+        return names[id];
+    }
+    public int getArrivalTime(int id) {
+        return arrivalTime.get(id);
+    }
+    public int getBurstTime(int id) {
+        return burstTime.get(id);
+    }
+    public int getRemainingTime(int id) {
+        return remainingTime[id];
+    }
+    public int getPriority(int id) {
+        return priority[id];
+    }
+    public int getQuantum(int id) {
+        return quantum[id];
+    }
+    public int getCompletionTime(int id) {
+        return completionTime[id];
+    }
+    public int getWaitingTime(int id) {
+        return waitingTime[id];
+    }
+    public int getTurnaroundTime(int id) {
+        return turnaroundTime[id];
+    }
+    // Read-only view of the row's quantum history
+    public List<Integer> getQuantumHistory(int id) {
+        return getQuantumHistoryLog(id).asList();
+    }
+    // Quantum the row was loaded with, or 0 if it had none
+    public int getInitialQuantum(int id) {
+        return hasInitialQuantum(id) ? initialQuantum.get(id) : 0;
+    }
+    public QuantumHistory getQuantumHistoryLog(int id) {
+        if (quantumHistory[id] == null) {
+            QuantumHistory history = new QuantumHistory(quantumHistoryMode);
+            if (hasInitialQuantum(id)) {
+                history.add(initialQuantum.get(id));
+            }
+            return history;
+        }
+        return quantumHistory[id];
+    }
+    public QuantumHistory.Mode getQuantumHistoryMode() {
+        return quantumHistoryMode;
+    }
+    public List<String> getExecutionOrder() {
+        return executionOrder;
+    }
+
+    // Setters
+    public void setRemainingTime(int id, int remainingTime) {
+        this.remainingTime[id] = remainingTime;
+    }
+    public void setPriority(int id, int priority) {
+        this.priority[id] = priority;
+    }
+    public void setQuantum(int id, int quantum) {
+        this.quantum[id] = quantum;
+    }
+    public void setCompletionTime(int id, int completionTime) {
+        this.completionTime[id] = completionTime;
+    }
+    public void setWaitingTime(int id, int waitingTime) {
+        this.waitingTime[id] = waitingTime;
+    }
+    public void setTurnaroundTime(int id, int turnaroundTime) {
+        this.turnaroundTime[id] = turnaroundTime;
+    }
+    // How quantum histories recorded from now on are stored
+    public void setQuantumHistoryMode(QuantumHistory.Mode mode) {
+        this.quantumHistoryMode = mode;
+    }
+    // Execution order shared by every process of the run, for schedulers that publish it per process
+    public void setExecutionOrder(List<String> executionOrder) {
+        this.executionOrder = executionOrder;
+    }
+
+    public void addQuantumToHistory(int id, int quantum) {
+        if (quantumHistory[id] == null) {
+            quantumHistory[id] = new QuantumHistory(quantumHistoryMode);
+            if (hasInitialQuantum(id)) {
+                quantumHistory[id].add(initialQuantum.get(id));
+            }
+        }
+        quantumHistory[id].add(quantum);
+    }
+    // False for rows loaded without a quantum, whose history starts out empty
+    public boolean hasInitialQuantum(int id) {
+        return withoutQuantum == null || !withoutQuantum.get(id);
+    }
+    public boolean isComplete(int id) {
+        return remainingTime[id] == 0;
+    }
+
+    // Build a Process holding a snapshot of one row
+    public Process getProcess(int id) {
+        Process p = new Process(getName(id), getArrivalTime(id), getBurstTime(id), priority[id], quantum[id]);
+        p.setId(id);
+        copyStateTo(p);
+        return p;
+    }
+
+    // Build Process snapshots of every row, in id order
+    public List<Process> getProcesses() {
+        List<Process> processes = new ArrayList<>(size());
+        for (int id = 0; id < size(); id++) {
+            processes.add(getProcess(id));
+        }
+        return processes;
+    }
+
+    // Write the scheduling state of the process's row back into it
+    public void copyStateTo(Process p) {
+        int id = p.getId();
+        p.setRemainingTime(remainingTime[id]);
+        p.setPriority(priority[id]);
+        p.setQuantum(quantum[id]);
+        p.setCompletionTime(completionTime[id]);
+        p.setWaitingTime(waitingTime[id]);
+        p.setTurnaroundTime(turnaroundTime[id]);
+        p.setQuantumHistory(getQuantumHistoryLog(id).copy());
+        if (executionOrder != null) {
+            p.setExecutionOrder(executionOrder);
+        }
+    }
+
+    // Builds a table row by row, for loaders that do not know the number of processes up front
+    public static class Builder {
+        private String[] names = new String[16];
+        private int[] arrivalTime = new int[16];
+        private int[] burstTime = new int[16];
+        private int[] priority = new int[16];
+        private int[] quantum = new int[16];
+        private BitSet withoutQuantum = null;
+        private int size = 0;
+
+        public Builder add(String name, int arrivalTime, int burstTime, int priority, int quantum) {
+            if (size == names.length) {
+                grow();
+            }
+            names[size] = name;
+            this.arrivalTime[size] = arrivalTime;
+            this.burstTime[size] = burstTime;
+            this.priority[size] = priority;
+            this.quantum[size] = quantum;
+            size++;
+            return this;
+        }
+
+        // A row without a quantum, for the schedulers that do not use one
+        public Builder add(String name, int arrivalTime, int burstTime, int priority) {
+            if (withoutQuantum == null) {
+                withoutQuantum = new BitSet();
+            }
+            withoutQuantum.set(size);
+            return add(name, arrivalTime, burstTime, priority, 0);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ProcessTable build() {
+            ProcessTable table = new ProcessTable(
+                    Arrays.copyOf(names, size),
+                    Arrays.copyOf(arrivalTime, size),
+                    Arrays.copyOf(burstTime, size),
+                    Arrays.copyOf(priority, size),
+                    Arrays.copyOf(quantum, size));
+            table.withoutQuantum = withoutQuantum;
+            return table;
+        }
+
+        private void grow() {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+            burstTime = Arrays.copyOf(burstTime, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+            quantum = Arrays.copyOf(quantum, capacity);
+        }
+    }
+}
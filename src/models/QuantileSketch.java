@@ -0,0 +1,146 @@
+package models;
+
+import java.util.*;
+
+// Fixed-size histogram of non-negative int values for percentile queries,
+// in the style of an HDR histogram. Values below 2^SUB_BITS get a bucket of
+// their own; above that, each power of two is split into 2^SUB_BITS buckets,
+// so a reported percentile is within 1/2^SUB_BITS (under 1%) of the true
+// value. Memory is the same (about 27 KB) whatever the number of values.
+// Negative values are counted as 0.
+public class QuantileSketch {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Integer.SIZE - SUB_BITS) << SUB_BITS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    public void add(int value) {
+        value = Math.max(0, value);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public int getMin() {
+        requireValues();
+        return min;
+    }
+
+    public int getMax() {
+        requireValues();
+        return max;
+    }
+
+    // Value with the given fraction (0 to 1) of the recorded values at or below it, to within
+    // the sketch's precision; exact for the minimum and maximum
+    public int getPercentile(double fraction) {
+        requireValues();
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Percentile fraction must be between 0 and 1: " + fraction);
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        if (rank >= count) {
+            return max;
+        }
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                int value = (int) Math.min(Integer.MAX_VALUE, (lowestValue(bucket) + highestValue(bucket)) / 2);
+                return Math.min(max, Math.max(min, value));
+            }
+        }
+        return max;
+    }
+
+    // Lowest value the percentile can have once total values are recorded, whatever the
+    // values still to come are; 0 while too few values are known to tell
+    public int getPercentileLowerBound(double fraction, long total) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Percentile fraction must be between 0 and 1: " + fraction);
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        // The percentile is at least v once this many values are known to be at least v
+        long needed = total - rank + 1;
+        if (needed <= 0 || count < needed) {
+            return 0;
+        }
+        long seen = 0;
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            seen += counts[bucket];
+            if (seen >= needed) {
+                return (int) Math.max(min, lowestValue(bucket));
+            }
+        }
+        return 0;
+    }
+
+    // Forget every recorded value, keeping the buckets for reuse
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Integer.MAX_VALUE;
+        max = Integer.MIN_VALUE;
+    }
+
+    // Add every value recorded in the other sketch
+    public void merge(QuantileSketch other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private static int bucketOf(int value) {
+        if (value < SUB_BUCKETS) {
+            return value;
+        }
+        int exponent = (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value)) - SUB_BITS;
+        return (exponent << SUB_BITS) + (value >>> exponent);
+    }
+
+    private static long lowestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BITS) - 1;
+        return (long) (bucket - (exponent << SUB_BITS)) << exponent;
+    }
+
+    private static long highestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BITS) - 1;
+        return ((long) (bucket - (exponent << SUB_BITS) + 1) << exponent) - 1;
+    }
+
+    private void requireValues() {
+        if (count == 0) {
+            throw new NoSuchElementException("No values recorded");
+        }
+    }
+}
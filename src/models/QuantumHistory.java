@@ -0,0 +1,205 @@
+package models;
+
+import java.util.*;
+
+// Quantum values a process went through, stored without boxing.
+// FULL keeps every value in an int array. DELTA stores each value as the
+// zig-zag varint difference from the one before; AG quanta mostly move in
+// small steps, so that is usually one byte per entry. SUMMARY keeps only the
+// count, first, last, min, max and sum, for runs where the history itself is
+// not needed.
+public class QuantumHistory {
+    public enum Mode { FULL, DELTA, SUMMARY }
+
+    private final Mode mode;
+    private int[] values;
+    private byte[] bytes;
+    private int byteCount = 0;
+
+    private int count = 0;
+    private int first;
+    private int last;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private long sum = 0;
+
+    // Decoding position of the last DELTA lookup, so reading in order costs O(1) per entry
+    private int cursorIndex = -1;
+    private int cursorOffset;
+    private int cursorValue;
+
+    private final List<Integer> view = new AbstractList<Integer>() {
+        @Override
+        public Integer get(int index) {
+            return QuantumHistory.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    };
+
+    public QuantumHistory() {
+        this(Mode.FULL);
+    }
+
+    public QuantumHistory(Mode mode) {
+        this.mode = mode;
+        if (mode == Mode.FULL) {
+            values = new int[4];
+        } else if (mode == Mode.DELTA) {
+            bytes = new byte[8];
+        }
+    }
+
+    public static QuantumHistory of(Mode mode, List<Integer> quanta) {
+        QuantumHistory history = new QuantumHistory(mode);
+        for (int quantum : quanta) {
+            history.add(quantum);
+        }
+        return history;
+    }
+
+    public void add(int quantum) {
+        if (mode == Mode.FULL) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count] = quantum;
+        } else if (mode == Mode.DELTA) {
+            int delta = count == 0 ? quantum : quantum - last;
+            writeVarint((delta << 1) ^ (delta >> 31));
+        }
+
+        if (count == 0) {
+            first = quantum;
+        }
+        last = quantum;
+        min = Math.min(min, quantum);
+        max = Math.max(max, quantum);
+        sum += quantum;
+        count++;
+    }
+
+    public int get(int index) {
+        Objects.checkIndex(index, count);
+        if (mode == Mode.FULL) {
+            return values[index];
+        }
+        requireEntries();
+        if (index < cursorIndex || cursorIndex < 0) {
+            cursorIndex = -1;
+            cursorOffset = 0;
+            cursorValue = 0;
+        }
+        while (cursorIndex < index) {
+            int encoded = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[cursorOffset++];
+                encoded |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            cursorValue += (encoded >>> 1) ^ -(encoded & 1);
+            cursorIndex++;
+        }
+        return cursorValue;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getFirst() {
+        requireNonEmpty();
+        return first;
+    }
+
+    public int getLast() {
+        requireNonEmpty();
+        return last;
+    }
+
+    public int getMin() {
+        requireNonEmpty();
+        return min;
+    }
+
+    public int getMax() {
+        requireNonEmpty();
+        return max;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Read-only view of every value; not available in SUMMARY mode
+    public List<Integer> asList() {
+        requireEntries();
+        return view;
+    }
+
+    public QuantumHistory copy() {
+        QuantumHistory copy = new QuantumHistory(mode);
+        if (values != null) {
+            copy.values = Arrays.copyOf(values, Math.max(1, count));
+        }
+        if (bytes != null) {
+            copy.bytes = Arrays.copyOf(bytes, Math.max(1, byteCount));
+            copy.byteCount = byteCount;
+        }
+        copy.count = count;
+        copy.first = first;
+        copy.last = last;
+        copy.min = min;
+        copy.max = max;
+        copy.sum = sum;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        if (mode == Mode.SUMMARY) {
+            return count == 0 ? "[]" : "[" + first + " .. " + last + "] (" + count + " values, min " + min + ", max " + max + ")";
+        }
+        return view.toString();
+    }
+
+    private void writeVarint(int value) {
+        if (byteCount + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + 5));
+        }
+        while ((value & ~0x7f) != 0) {
+            bytes[byteCount++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[byteCount++] = (byte) value;
+    }
+
+    private void requireEntries() {
+        if (mode == Mode.SUMMARY) {
+            throw new IllegalStateException("Quantum history was kept as a summary only");
+        }
+    }
+
+    private void requireNonEmpty() {
+        if (count == 0) {
+            throw new NoSuchElementException("Quantum history is empty");
+        }
+    }
+}
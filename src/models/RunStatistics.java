@@ -0,0 +1,51 @@
+package models;
+
+// Waiting and turnaround time statistics of one scheduling run, updated as
+// each process completes. Averages, maxima and percentiles are available
+// without keeping the processes or making a second pass over them.
+public class RunStatistics {
+    private final QuantileSketch waitingTimes = new QuantileSketch();
+    private final QuantileSketch turnaroundTimes = new QuantileSketch();
+
+    public void recordCompletion(int waitingTime, int turnaroundTime) {
+        waitingTimes.add(waitingTime);
+        turnaroundTimes.add(turnaroundTime);
+    }
+
+    public long getCompletedCount() {
+        return waitingTimes.getCount();
+    }
+
+    public double getAverageWaitingTime() {
+        return waitingTimes.getAverage();
+    }
+
+    public double getAverageTurnaroundTime() {
+        return turnaroundTimes.getAverage();
+    }
+
+    public int getMaxWaitingTime() {
+        return waitingTimes.getMax();
+    }
+
+    public int getMaxTurnaroundTime() {
+        return turnaroundTimes.getMax();
+    }
+
+    // e.g. getWaitingTimePercentile(0.99) for p99
+    public int getWaitingTimePercentile(double fraction) {
+        return waitingTimes.getPercentile(fraction);
+    }
+
+    public int getTurnaroundTimePercentile(double fraction) {
+        return turnaroundTimes.getPercentile(fraction);
+    }
+
+    public QuantileSketch getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    public QuantileSketch getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+}
@@ -0,0 +1,138 @@
+package models;
+
+import java.util.*;
+
+// Point and range queries over a finished scheduling run: what was running at
+// a given time, how many processes were waiting in the ready queue, and which
+// ones waited during an interval. Built once from the run's timeline and
+// process table; every point query is O(log n).
+// A process waits when it has arrived and not yet completed but does not
+// hold the CPU, which includes context switches.
+public class TimelineIndex {
+    private final ExecutionTimeline timeline;
+    private final int[] sortedArrivals;
+    private final int[] sortedCompletions;
+    // Process ids in arrival order, with their arrival and completion times
+    private final int[] byArrival;
+    private final int[] arrivalOf;
+    private final int[] completionOf;
+    // Segment tree over byArrival holding the latest completion in each range
+    private final int[] latestCompletion;
+    private final int leaves;
+
+    public TimelineIndex(ProcessTable table, ExecutionTimeline timeline) {
+        int n = table.size();
+        this.timeline = timeline;
+        this.sortedArrivals = new int[n];
+        this.sortedCompletions = new int[n];
+        this.arrivalOf = new int[n];
+        this.completionOf = new int[n];
+
+        long[] keys = new long[n];
+        for (int id = 0; id < n; id++) {
+            arrivalOf[id] = table.getArrivalTime(id);
+            completionOf[id] = table.getCompletionTime(id);
+            sortedArrivals[id] = arrivalOf[id];
+            sortedCompletions[id] = completionOf[id];
+            keys[id] = ((long) arrivalOf[id] << 32) | id;
+        }
+        Arrays.sort(sortedArrivals);
+        Arrays.sort(sortedCompletions);
+        Arrays.sort(keys);
+        this.byArrival = new int[n];
+        for (int i = 0; i < n; i++) {
+            byArrival[i] = (int) keys[i];
+        }
+
+        int size = 1;
+        while (size < n) {
+            size *= 2;
+        }
+        this.leaves = size;
+        this.latestCompletion = new int[2 * size];
+        Arrays.fill(latestCompletion, Integer.MIN_VALUE);
+        for (int i = 0; i < n; i++) {
+            latestCompletion[size + i] = completionOf[byArrival[i]];
+        }
+        for (int node = size - 1; node > 0; node--) {
+            latestCompletion[node] = Math.max(latestCompletion[2 * node], latestCompletion[2 * node + 1]);
+        }
+    }
+
+    // Id of the process holding the CPU at the given time, or -1 if none does
+    public int runningAt(int time) {
+        return timeline.processRunningAt(time);
+    }
+
+    // Number of processes waiting in the ready queue at the given time
+    public int queueDepthAt(int time) {
+        int arrived = countAtOrBefore(sortedArrivals, time);
+        int completed = countAtOrBefore(sortedCompletions, time);
+        int running = runningAt(time) >= 0 ? 1 : 0;
+        return arrived - completed - running;
+    }
+
+    // Ids of the processes that waited at some point in [from, to), in arrival order.
+    // Costs O((k + 1) log n) for k processes alive during the interval.
+    public int[] waitingBetween(int from, int to) {
+        if (from >= to) {
+            return new int[0];
+        }
+        // Candidates arrived before to and completed after from: walk the tree over the
+        // arrival-order prefix, skipping ranges where everything completed by from
+        int arrivedBefore = countAtOrBefore(sortedArrivals, to - 1);
+        int[] found = new int[8];
+        int count = 0;
+        int[] stack = new int[3 * 64];
+        int top = 0;
+        stack[top++] = 1;
+        stack[top++] = 0;
+        stack[top++] = leaves;
+        while (top > 0) {
+            int high = stack[--top];
+            int low = stack[--top];
+            int node = stack[--top];
+            if (low >= arrivedBefore || latestCompletion[node] <= from) {
+                continue;
+            }
+            if (high - low > 1) {
+                int middle = (low + high) >>> 1;
+                stack[top++] = 2 * node + 1;
+                stack[top++] = middle;
+                stack[top++] = high;
+                stack[top++] = 2 * node;
+                stack[top++] = low;
+                stack[top++] = middle;
+                continue;
+            }
+
+            int id = byArrival[low];
+            int start = Math.max(from, arrivalOf[id]);
+            int end = Math.min(to, completionOf[id]);
+            // It did not wait only if a single segment covers its whole overlap with the interval
+            if (runningAt(start) == id && timeline.runningUntil(start) >= end) {
+                continue;
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = id;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // Number of values in the sorted array that are at or before time
+    private static int countAtOrBefore(int[] sorted, int time) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,112 @@
+package schedulers;
+
+import models.ProcessTable;
+
+import java.util.*;
+
+// Ready queue for the AG scheduler. Keeps process ids in FIFO order for normal
+// dispatch and indexes the same entries by priority and remaining time for the
+// zone checks. Ties go to the process nearest the front of the queue, the same
+// result as scanning the queue front to back.
+// A queued process must not change priority or remaining time while it waits,
+// which holds for AG since only the running process is updated.
+// The per-CPU queues of a multi-core run share one entry array, as a process
+// is queued on one CPU at a time.
+class AGReadyQueue {
+    static final int NONE = -1;
+
+    private final TreeSet<Entry> fifo = new TreeSet<>(
+            Comparator.comparingLong(e -> e.sequence));
+    private final TreeSet<Entry> byPriority = new TreeSet<>(
+            Comparator.<Entry>comparingInt(e -> e.priority).thenComparingLong(e -> e.sequence));
+    private final TreeSet<Entry> byRemainingTime = new TreeSet<>(
+            Comparator.<Entry>comparingInt(e -> e.remainingTime).thenComparingLong(e -> e.sequence));
+    private final ProcessTable table;
+    // Queued entry of each process, indexed by process id
+    private final Entry[] entries;
+    private long nextSequence = 0;
+
+    public AGReadyQueue(ProcessTable table) {
+        this.table = table;
+        this.entries = new Entry[table.size()];
+    }
+
+    // Empty queue sharing the entry array of another
+    public AGReadyQueue(AGReadyQueue shareEntries) {
+        this.table = shareEntries.table;
+        this.entries = shareEntries.entries;
+    }
+
+    public void add(int id) {
+        Entry e = new Entry(id, nextSequence++, table.getPriority(id), table.getRemainingTime(id));
+        entries[id] = e;
+        fifo.add(e);
+        byPriority.add(e);
+        byRemainingTime.add(e);
+    }
+
+    // Id at the front of the queue, or NONE if it is empty
+    public int poll() {
+        if (fifo.isEmpty()) {
+            return NONE;
+        }
+        Entry e = fifo.first();
+        unlink(e);
+        return e.id;
+    }
+
+    // Id at the back of the queue, or NONE if it is empty
+    public int pollLast() {
+        if (fifo.isEmpty()) {
+            return NONE;
+        }
+        Entry e = fifo.last();
+        unlink(e);
+        return e.id;
+    }
+
+    public void remove(int id) {
+        Entry e = entries[id];
+        // With a shared entry array the entry may belong to another CPU's queue
+        if (e != null && fifo.ceiling(e) == e) {
+            unlink(e);
+        }
+    }
+
+    public int getBestPriorityProcess() {
+        return byPriority.isEmpty() ? NONE : byPriority.first().id;
+    }
+
+    public int getShortestProcess() {
+        return byRemainingTime.isEmpty() ? NONE : byRemainingTime.first().id;
+    }
+
+    public boolean isEmpty() {
+        return fifo.isEmpty();
+    }
+
+    public int size() {
+        return fifo.size();
+    }
+
+    private void unlink(Entry e) {
+        entries[e.id] = null;
+        fifo.remove(e);
+        byPriority.remove(e);
+        byRemainingTime.remove(e);
+    }
+
+    private static class Entry {
+        final int id;
+        final long sequence;
+        final int priority;
+        final int remainingTime;
+
+        Entry(int id, long sequence, int priority, int remainingTime) {
+            this.id = id;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.remainingTime = remainingTime;
+        }
+    }
+}
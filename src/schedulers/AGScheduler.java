@@ -1,145 +1,154 @@
 package schedulers;
 
 import models.Process;
+import models.ProcessTable;
+import models.QuantumHistory;
 
 import java.util.*;
 
 public class AGScheduler extends SchedulerBase {
-    private List<String> executionOrder = new ArrayList<>();
+    private AGReadyQueue readyQueue;
+    private int timeByCurrentProcess = 0;
+    // Quantum the running process gets when the pending preemption switches it out
+    private int preemptedQuantum = 0;
 
     public AGScheduler(List<Process> processes, int contextSwitchTime) {
         super(processes, contextSwitchTime);
     }
 
+    public AGScheduler(ProcessTable table, int contextSwitchTime) {
+        super(table, contextSwitchTime);
+    }
+
+    // Keep quantum histories in full (the default), delta encoded, or as summary statistics only
+    public void setQuantumHistoryMode(QuantumHistory.Mode mode) {
+        table.setQuantumHistoryMode(mode);
+    }
+
     @Override
     public void schedule() {
-        System.out.println("Running AG Scheduling...");
-        int currentTime = 0;
-        int completedProcesses = 0;
-        Queue<Process> readyQueue = new LinkedList<>();
-        Set<Process> arrivedProcesses = new HashSet<>();
-        Process currentProcess = null;
-        int timeByCurrentProcess = 0;
-
-        while (completedProcesses < processes.size()) {
-            for (Process p : processes) {
-                if (p.getArrivalTime() <= currentTime && !arrivedProcesses.contains(p)) {
-                    readyQueue.add(p);
-                    arrivedProcesses.add(p);
-                }
-            }
-            if (currentProcess == null) {
-                if (!readyQueue.isEmpty()) {
-                    currentProcess = readyQueue.poll();
-                    timeByCurrentProcess = 0;
-                } else {
-                    currentTime++;
-                    continue;
-                }
-            }
+        log("Running AG Scheduling...");
+        prepare(null);
+        simulate();
+        calculateTimes();
+        // Remember to call calculateTimes() at the end
+    }
 
-            int q = currentProcess.getQuantum();
-            int limit25 = (int) Math.ceil(q * 0.25);
-            int limit50 = limit25 + (int) Math.ceil(q * 0.25);
+    @Override
+    protected void prepare(SchedulerBase sibling) {
+        readyQueue = sibling == null ? new AGReadyQueue(table) : new AGReadyQueue(((AGScheduler) sibling).readyQueue);
+        timeByCurrentProcess = 0;
+    }
 
-            boolean preempted = false;
+    @Override
+    protected void admit(int id) {
+        readyQueue.add(id);
+    }
 
-            // zone 2: Priority Scheduling [limit25, limit50[
-            if (timeByCurrentProcess == limit25) {
-                Process bestPriorityProcess = getBestPriorityProcess(readyQueue);
+    @Override
+    protected int selectNext(int running, int currentTime) {
+        if (running == NONE) {
+            return readyQueue.poll();
+        }
 
-                if (bestPriorityProcess != null && bestPriorityProcess.getPriority() < currentProcess.getPriority()) {
-                    preempted = true;
+        int q = table.getQuantum(running);
+        int limit25 = (int) Math.ceil(q * 0.25);
+        int limit50 = limit25 + (int) Math.ceil(q * 0.25);
 
-                    int unused = q - timeByCurrentProcess;
-                    int nextQuantum = q + (int) Math.ceil(unused / 2.0);
-                    preemptive(currentProcess, nextQuantum, readyQueue);
-                    currentProcess = bestPriorityProcess;
-                    readyQueue.remove(currentProcess);
-                }
-            }
-            // zone 3: Shortest Remaining Time First [limit50 to end]
-            else if (timeByCurrentProcess >= limit50) {
-                Process shortestProcess = getShortestProcess(readyQueue);
-                if (shortestProcess != null && shortestProcess.getRemainingTime() < currentProcess.getRemainingTime()) {
-                    preempted = true;
-                    int unused = q - timeByCurrentProcess;
-                    int nextQuantum = q + unused;
-
-                    preemptive(currentProcess, nextQuantum, readyQueue);
-                    currentProcess = shortestProcess;
-                    readyQueue.remove(currentProcess);
-                }
-            }
+        // zone 2: Priority Scheduling [limit25, limit50[
+        if (timeByCurrentProcess == limit25) {
+            int bestPriorityProcess = readyQueue.getBestPriorityProcess();
 
-            if (preempted) {
-                timeByCurrentProcess = 0;
-                currentTime += contextSwitchTime;
-                continue;
+            if (bestPriorityProcess != NONE
+                    && table.getPriority(bestPriorityProcess) < table.getPriority(running)) {
+                int unused = q - timeByCurrentProcess;
+                preemptedQuantum = q + (int) Math.ceil(unused / 2.0);
+                readyQueue.remove(bestPriorityProcess);
+                return bestPriorityProcess;
             }
-            if (executionOrder.isEmpty()) {
-                executionOrder.add(currentProcess.getName());
-            }
-            if (!executionOrder.isEmpty() && !executionOrder.get(executionOrder.size() - 1).equals(currentProcess.getName())) {
-                executionOrder.add(currentProcess.getName());
-            }
-
-            currentProcess.setRemainingTime(currentProcess.getRemainingTime() - 1);
-            timeByCurrentProcess++;
-            currentTime++;
-
-            if (currentProcess.isComplete()) {
-                currentProcess.setCompletionTime(currentTime);
-                updateQuantum(currentProcess, 0);
-                completedProcesses++;
-                currentProcess = null;
-                // add context switch time only if there is another process ready to run now
-                if (!readyQueue.isEmpty() && completedProcesses < processes.size()) {
-                    currentTime += contextSwitchTime;
-                }
-            } else if (timeByCurrentProcess == q) {
-                int nextQuantum = q + 2;
-                updateQuantum(currentProcess, nextQuantum);
-                readyQueue.add(currentProcess);
-                currentProcess = null;
-                currentTime += contextSwitchTime;
+        }
+        // zone 3: Shortest Remaining Time First [limit50 to end]
+        else if (timeByCurrentProcess >= limit50) {
+            int shortestProcess = readyQueue.getShortestProcess();
+            if (shortestProcess != NONE
+                    && table.getRemainingTime(shortestProcess) < table.getRemainingTime(running)) {
+                int unused = q - timeByCurrentProcess;
+                preemptedQuantum = q + unused;
+                readyQueue.remove(shortestProcess);
+                return shortestProcess;
             }
         }
-        calculateTimes();
-        // Remember to call calculateTimes() at the end
+        return running;
     }
 
-    private void preemptive(Process p, int nextQuantum, Queue<Process> readyQueue) {
-        updateQuantum(p, nextQuantum);
-        readyQueue.add(p);
+    // Run until the next point where a scheduling decision can change:
+    // quantum expiry, the next zone boundary, or (inside the SRTF zone,
+    // where the last check failed) the next arrival
+    @Override
+    protected int runUntil(int id, int currentTime) {
+        int q = table.getQuantum(id);
+        int limit25 = (int) Math.ceil(q * 0.25);
+        int limit50 = limit25 + (int) Math.ceil(q * 0.25);
+
+        int runTime = q - timeByCurrentProcess;
+        if (timeByCurrentProcess < limit25) {
+            runTime = Math.min(runTime, limit25 - timeByCurrentProcess);
+        } else if (timeByCurrentProcess < limit50) {
+            runTime = Math.min(runTime, limit50 - timeByCurrentProcess);
+        } else if (nextArrivalTime() != Integer.MAX_VALUE) {
+            runTime = Math.min(runTime, nextArrivalTime() - currentTime);
+        }
+        return currentTime + runTime;
     }
 
-    private Process getBestPriorityProcess(Queue<Process> queue) {
-        Process bestProcess = null;
-        for (Process p : queue) {
-            if (bestProcess == null || p.getPriority() < bestProcess.getPriority()) {
-                bestProcess = p;
-            }
+    @Override
+    protected boolean endSlice(int id, int start, int end) {
+        timeByCurrentProcess += end - start;
+        int q = table.getQuantum(id);
+        if (timeByCurrentProcess < q) {
+            return false;
         }
-        return bestProcess;
+        updateQuantum(id, q + 2);
+        readyQueue.add(id);
+        return true;
     }
 
-    private Process getShortestProcess(Queue<Process> queue) {
-        Process shortestProcess = null;
-        for (Process p : queue) {
-            if (shortestProcess == null || p.getRemainingTime() < shortestProcess.getRemainingTime()) {
-                shortestProcess = p;
-            }
-        }
-        return shortestProcess;
+    @Override
+    protected int contextSwitchBefore(int previous, int running, int currentTime) {
+        // Switches after a completion or quantum expiry are paid in contextSwitchAfter
+        return running != NONE ? contextSwitchTime : 0;
+    }
+
+    @Override
+    protected int contextSwitchAfter(int id, boolean completed) {
+        // add context switch time after a completion only if there is another process ready to run now
+        return !completed || !readyQueue.isEmpty() ? contextSwitchTime : 0;
     }
 
-    private void updateQuantum(Process p, int newQuantum) {
-        p.setQuantum(newQuantum);
-        p.addQuantumToHistory(newQuantum);
+    @Override
+    protected void startRunning(int id, int currentTime) {
+        timeByCurrentProcess = 0;
+    }
+
+    @Override
+    protected void stopRunning(int id, int currentTime) {
+        updateQuantum(id, preemptedQuantum);
+        readyQueue.add(id);
+    }
+
+    @Override
+    protected void onComplete(int id, int currentTime) {
+        updateQuantum(id, 0);
+    }
+
+    // A queued process keeps its quantum when another CPU takes it
+    @Override
+    protected int migrateOut(int running) {
+        return readyQueue.pollLast();
     }
 
-    public List<String> getExecutionOrder() {
-        return executionOrder;
+    private void updateQuantum(int id, int newQuantum) {
+        table.setQuantum(id, newQuantum);
+        table.addQuantumToHistory(id, newQuantum);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package schedulers;
+
+import models.ProcessTable;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+// Process ids sorted by arrival time (ties keep id order), consumed with a
+// cursor so admitting arrivals only costs the number of new arrivals.
+class ArrivalStream {
+    private final ProcessTable table;
+    private final int[] order;
+    private int nextIndex = 0;
+
+    public ArrivalStream(ProcessTable table) {
+        this.table = table;
+        // Sort (arrival, id) pairs packed into longs, which keeps ties stable
+        long[] keys = new long[table.size()];
+        for (int id = 0; id < keys.length; id++) {
+            keys[id] = ((long) table.getArrivalTime(id) << 32) | id;
+        }
+        Arrays.sort(keys);
+        this.order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+    }
+
+    public boolean hasNext() {
+        return nextIndex < order.length;
+    }
+
+    // Arrival time of the next process not yet admitted, or Integer.MAX_VALUE if none are left
+    public int nextArrivalTime() {
+        return hasNext() ? table.getArrivalTime(order[nextIndex]) : Integer.MAX_VALUE;
+    }
+
+    // Hand the id of every process that has arrived by the given time to the ready queue, in arrival order
+    public void admitUpTo(int time, IntConsumer readyQueue) {
+        while (nextIndex < order.length && table.getArrivalTime(order[nextIndex]) <= time) {
+            readyQueue.accept(order[nextIndex]);
+            nextIndex++;
+        }
+    }
+}
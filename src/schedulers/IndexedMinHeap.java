@@ -0,0 +1,136 @@
+package schedulers;
+
+import java.util.*;
+
+// Binary min-heap of process ids in [0, capacity). Every id knows its
+// position in the heap, so an entry can be removed, or moved after its key
+// changed, in O(log n) without allocating anything.
+// Heaps can share one position array as long as an id is in only one of them
+// at a time; the per-CPU queues of a multi-core run do this, so each queue
+// only grows with its own entries instead of holding an array over every process.
+class IndexedMinHeap {
+    interface Order {
+        // True if process a should come out of the heap before process b
+        boolean before(int a, int b);
+    }
+
+    private int[] heap;
+    private final int[] position;
+    private final Order order;
+    private int size = 0;
+
+    public IndexedMinHeap(int capacity, Order order) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.order = order;
+        Arrays.fill(position, -1);
+    }
+
+    // Empty heap sharing the positions of another
+    public IndexedMinHeap(IndexedMinHeap sharePositions, Order order) {
+        this.heap = new int[16];
+        this.position = sharePositions.position;
+        this.order = order;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        int pos = position[id];
+        return pos >= 0 && pos < size && heap[pos] == id;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    public int poll() {
+        int top = peek();
+        remove(top);
+        return top;
+    }
+
+    public void add(int id) {
+        if (contains(id)) {
+            throw new IllegalStateException("Process " + id + " is already in the heap");
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = id;
+        position[id] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    public void remove(int id) {
+        if (!contains(id)) {
+            return;
+        }
+        int pos = position[id];
+        size--;
+        position[id] = -1;
+        if (pos == size) {
+            return;
+        }
+        int last = heap[size];
+        heap[pos] = last;
+        position[last] = pos;
+        siftDown(siftUp(pos));
+    }
+
+    // Restore heap order after the key of an id already in the heap changed
+    public void update(int id) {
+        if (contains(id)) {
+            siftDown(siftUp(position[id]));
+        }
+    }
+
+    private int siftUp(int pos) {
+        int id = heap[pos];
+        while (pos > 0) {
+            int parentPos = (pos - 1) >>> 1;
+            int parent = heap[parentPos];
+            if (!order.before(id, parent)) {
+                break;
+            }
+            heap[pos] = parent;
+            position[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = id;
+        position[id] = pos;
+        return pos;
+    }
+
+    private void siftDown(int pos) {
+        int id = heap[pos];
+        while (true) {
+            int childPos = 2 * pos + 1;
+            if (childPos >= size) {
+                break;
+            }
+            if (childPos + 1 < size && order.before(heap[childPos + 1], heap[childPos])) {
+                childPos++;
+            }
+            int child = heap[childPos];
+            if (!order.before(child, id)) {
+                break;
+            }
+            heap[pos] = child;
+            position[child] = pos;
+            pos = childPos;
+        }
+        heap[pos] = id;
+        position[id] = pos;
+    }
+}
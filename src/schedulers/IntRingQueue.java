@@ -0,0 +1,79 @@
+package schedulers;
+
+import java.util.*;
+
+// FIFO queue of process ids backed by an int ring buffer. A process is
+// queued at most once at a time, so a queue sized for every process never
+// grows or allocates after construction; a smaller one doubles when full.
+class IntRingQueue {
+    private int[] ids;
+    private int head = 0;
+    private int size = 0;
+
+    public IntRingQueue(int capacity) {
+        this.ids = new int[Math.max(1, capacity)];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(int id) {
+        if (size == ids.length) {
+            grow();
+        }
+        int tail = head + size;
+        if (tail >= ids.length) {
+            tail -= ids.length;
+        }
+        ids[tail] = id;
+        size++;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return ids[head];
+    }
+
+    // Id at the given position, counting from the front
+    public int get(int index) {
+        Objects.checkIndex(index, size);
+        int i = head + index;
+        return ids[i < ids.length ? i : i - ids.length];
+    }
+
+    public int poll() {
+        int id = peek();
+        head++;
+        if (head == ids.length) {
+            head = 0;
+        }
+        size--;
+        return id;
+    }
+
+    // Take the id at the back of the queue
+    public int pollLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int id = get(size - 1);
+        size--;
+        return id;
+    }
+
+    private void grow() {
+        int[] grown = new int[ids.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = get(i);
+        }
+        ids = grown;
+        head = 0;
+    }
+}
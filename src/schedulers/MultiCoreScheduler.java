@@ -0,0 +1,539 @@
+package schedulers;
+
+import models.ExecutionTimeline;
+import models.Process;
+import models.ProcessTable;
+import models.RunStatistics;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+// Runs one scheduling policy on several CPUs. Every CPU has its own instance
+// of the policy, and so its own ready queue and context switch time, over one
+// shared process table. A process is queued on one CPU at a time, so the
+// instances share their per-process arrays and each queue only holds its own
+// entries: memory grows with the processes plus the CPUs, not their product.
+//
+// The CPUs run the same event loop as SchedulerBase.simulate(), cut at every
+// point where time passes (a context switch or a slice), and the events of
+// all CPUs and the arrivals are handled in time order. Each new arrival is
+// placed on a CPU (round robin or least loaded), and with work stealing a CPU
+// that runs out of work takes a waiting process from the most loaded one.
+// A policy that would end a slice at the next arrival has it ended only by an
+// arrival placed on its own CPU, so an arrival costs one event, not one per
+// CPU. Finding the CPUs involved costs O(log cpus) per event.
+public class MultiCoreScheduler {
+    public enum Placement {
+        // Arrivals go to the CPUs in turn
+        ROUND_ROBIN,
+        // Each arrival goes to the CPU with the fewest unfinished processes
+        LEAST_LOADED
+    }
+
+    private static final int NONE = SchedulerBase.NONE;
+
+    // What a CPU does at its next event
+    private static final int IDLE = 0;
+    private static final int DECIDE = 1;
+    private static final int AFTER_SWITCH = 2;
+    private static final int SLICE_END = 3;
+
+    private final SchedulerType type;
+    private final ProcessTable table;
+    private final SchedulerBase[] cpus;
+    private Placement placement = Placement.LEAST_LOADED;
+    private boolean workStealing = true;
+
+    // Per CPU
+    private final int[] phase;
+    private final int[] eventTime;
+    private final int[] running;
+    private final int[] previous;
+    private final int[] switchingTo;
+    private final int[] sliceStart;
+    // True if the running slice should end when a process is placed on the CPU
+    private final boolean[] endsAtArrival;
+    // Unfinished processes placed on the CPU, queued or running
+    private final int[] load;
+    private final long[] busyTime;
+    private final long[] switchTime;
+    private final long[] contextSwitches;
+    private final long[] migrationsIn;
+    private final long[] migrationsOut;
+
+    // CPUs with a pending event, by event time
+    private final CpuHeap events;
+    private final CpuHeap leastLoaded;
+    private final CpuHeap mostLoaded;
+    // CPUs with nothing to run, lowest number first
+    private final CpuHeap idle;
+
+    private ArrivalStream arrivals;
+    private final IntConsumer placer = id -> place(id);
+    private RunStatistics statistics = new RunStatistics();
+    // CPU whose event is being handled
+    private int activeCpu = NONE;
+    private int clock;
+    private int completedProcesses;
+    private int nextPlacement;
+    private int makespan;
+
+    // One CPU per entry of contextSwitchTimes, each with that context switch time
+    public MultiCoreScheduler(SchedulerType type, ProcessTable table, int[] contextSwitchTimes,
+                              int rrQuantum, int agingInterval) {
+        int n = contextSwitchTimes.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one CPU is needed");
+        }
+        this.type = type;
+        this.table = table;
+        this.cpus = new SchedulerBase[n];
+        // The timelines share the default memory budget before they spill
+        long timelineBudget = Math.max(1L << 16, ExecutionTimeline.DEFAULT_MEMORY_BUDGET / n);
+        for (int cpu = 0; cpu < n; cpu++) {
+            cpus[cpu] = type.create(table, contextSwitchTimes[cpu], rrQuantum, agingInterval);
+            cpus[cpu].setVerbose(false);
+            cpus[cpu].setTimelineMemoryBudget(timelineBudget);
+            cpus[cpu].multiCore = this;
+        }
+        this.phase = new int[n];
+        this.eventTime = new int[n];
+        this.running = new int[n];
+        this.previous = new int[n];
+        this.switchingTo = new int[n];
+        this.sliceStart = new int[n];
+        this.endsAtArrival = new boolean[n];
+        this.load = new int[n];
+        this.busyTime = new long[n];
+        this.switchTime = new long[n];
+        this.contextSwitches = new long[n];
+        this.migrationsIn = new long[n];
+        this.migrationsOut = new long[n];
+        this.events = new CpuHeap(n);
+        this.leastLoaded = new CpuHeap(n);
+        this.mostLoaded = new CpuHeap(n);
+        this.idle = new CpuHeap(n);
+    }
+
+    // cpus CPUs with the same context switch time
+    public MultiCoreScheduler(SchedulerType type, ProcessTable table, int cpus, int contextSwitchTime,
+                              int rrQuantum, int agingInterval) {
+        this(type, table, filled(cpus, contextSwitchTime), rrQuantum, agingInterval);
+    }
+
+    private static int[] filled(int count, int value) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one CPU is needed: " + count);
+        }
+        int[] values = new int[count];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    public void setPlacement(Placement placement) {
+        this.placement = placement;
+    }
+
+    public void setWorkStealing(boolean workStealing) {
+        this.workStealing = workStealing;
+    }
+
+    public void schedule() {
+        int n = cpus.length;
+        cpus[0].prepare(null);
+        for (int cpu = 1; cpu < n; cpu++) {
+            cpus[cpu].prepare(cpus[0]);
+        }
+        for (int cpu = 0; cpu < n; cpu++) {
+            phase[cpu] = IDLE;
+            running[cpu] = NONE;
+            previous[cpu] = NONE;
+            leastLoaded.set(cpu, 0);
+            mostLoaded.set(cpu, 0);
+            idle.set(cpu, 0);
+        }
+        arrivals = new ArrivalStream(table);
+        statistics = new RunStatistics();
+        clock = 0;
+        completedProcesses = 0;
+        nextPlacement = 0;
+        makespan = 0;
+
+        while (completedProcesses < table.size()) {
+            int cpu = events.isEmpty() ? NONE : events.peek();
+            // Arrivals come before any event that happens later; arrivals at the time of an
+            // event are admitted by the CPU itself, the same as on a single CPU
+            if (cpu == NONE || arrivals.nextArrivalTime() < eventTime[cpu]) {
+                if (!arrivals.hasNext()) {
+                    throw new IllegalStateException("No process can run at time " + clock);
+                }
+                clock = arrivals.nextArrivalTime();
+                admitArrivals(clock);
+                continue;
+            }
+            // The CPU stays in the queue while it is handled; most events schedule the
+            // next one, which then only moves it down from the top
+            clock = eventTime[cpu];
+            activeCpu = cpu;
+            step(cpu);
+            activeCpu = NONE;
+            if (phase[cpu] == IDLE) {
+                events.remove(cpu);
+            }
+        }
+        cpus[0].calculateTimes();
+    }
+
+    private void step(int cpu) {
+        SchedulerBase policy = cpus[cpu];
+        int time = eventTime[cpu];
+        if (phase[cpu] == AFTER_SWITCH) {
+            policy.admitArrivals(time);
+            int next = policy.reselect(switchingTo[cpu], time);
+            if (next == NONE) {
+                // Another CPU took the process during the switch
+                decide(cpu, time);
+            } else {
+                running[cpu] = next;
+                policy.startRunning(next, time);
+                runSlice(cpu, time);
+            }
+            return;
+        }
+        if (phase[cpu] == SLICE_END) {
+            int id = running[cpu];
+            int start = sliceStart[cpu];
+            policy.executionOrder.record(id, start, time);
+            table.setRemainingTime(id, table.getRemainingTime(id) - (time - start));
+            busyTime[cpu] += time - start;
+            boolean completed = table.isComplete(id);
+            if (completed) {
+                table.setCompletionTime(id, time);
+                int turnaround = time - table.getArrivalTime(id);
+                statistics.recordCompletion(turnaround - table.getBurstTime(id), turnaround);
+                completedProcesses++;
+                makespan = Math.max(makespan, time);
+                policy.onComplete(id, time);
+                changeLoad(cpu, -1);
+            } else if (!policy.endSlice(id, start, time)) {
+                decide(cpu, time);
+                return;
+            }
+            running[cpu] = NONE;
+            int after = policy.contextSwitchAfter(id, completed);
+            if (after > 0) {
+                switchTime[cpu] += after;
+                contextSwitches[cpu]++;
+                schedule(cpu, time + after, DECIDE);
+                return;
+            }
+        }
+        decide(cpu, time);
+    }
+
+    // One pass of the single-CPU loop up to the point where time passes
+    private void decide(int cpu, int time) {
+        SchedulerBase policy = cpus[cpu];
+        policy.admitArrivals(time);
+        int next = policy.selectNext(running[cpu], time);
+        if (next == NONE && workStealing && steal(cpu)) {
+            next = policy.selectNext(running[cpu], time);
+        }
+        if (next == NONE) {
+            phase[cpu] = IDLE;
+            idle.set(cpu, 0);
+            return;
+        }
+        if (next != running[cpu]) {
+            int switchTime = policy.contextSwitchBefore(previous[cpu], running[cpu], time);
+            if (running[cpu] != NONE) {
+                policy.stopRunning(running[cpu], time);
+                running[cpu] = NONE;
+            }
+            if (switchTime > 0) {
+                this.switchTime[cpu] += switchTime;
+                contextSwitches[cpu]++;
+                switchingTo[cpu] = next;
+                schedule(cpu, time + switchTime, AFTER_SWITCH);
+                return;
+            }
+            running[cpu] = next;
+            policy.startRunning(next, time);
+        }
+        runSlice(cpu, time);
+    }
+
+    // The slice is recorded when it ends, as an arrival may end it early
+    private void runSlice(int cpu, int start) {
+        SchedulerBase policy = cpus[cpu];
+        int id = running[cpu];
+        endsAtArrival[cpu] = false;
+        int end = Math.min(policy.runUntil(id, start), start + table.getRemainingTime(id));
+        previous[cpu] = id;
+        sliceStart[cpu] = start;
+        schedule(cpu, end, SLICE_END);
+    }
+
+    private void schedule(int cpu, int time, int next) {
+        phase[cpu] = next;
+        eventTime[cpu] = time;
+        events.set(cpu, time);
+    }
+
+    // Place every process that has arrived by the given time on a CPU
+    void admitArrivals(int time) {
+        arrivals.admitUpTo(time, placer);
+    }
+
+    // Which CPU the next arrival goes to is only known once it arrives, so a policy asking
+    // for the next arrival gets no bound; placing a process on its CPU ends the slice instead
+    int nextArrivalTime() {
+        if (activeCpu != NONE) {
+            endsAtArrival[activeCpu] = true;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private void place(int id) {
+        int cpu;
+        if (placement == Placement.ROUND_ROBIN) {
+            cpu = nextPlacement;
+            nextPlacement = nextPlacement + 1 == cpus.length ? 0 : nextPlacement + 1;
+        } else {
+            cpu = leastLoaded.peek();
+        }
+        cpus[cpu].admit(id);
+        changeLoad(cpu, 1);
+        if (phase[cpu] == IDLE) {
+            wake(cpu);
+        } else if (phase[cpu] == SLICE_END && endsAtArrival[cpu] && eventTime[cpu] > clock && cpu != activeCpu) {
+            eventTime[cpu] = clock;
+            events.set(cpu, clock);
+        }
+        if (workStealing && load[cpu] > 1 && !idle.isEmpty()) {
+            // The process has to wait here while another CPU has nothing to do
+            wake(idle.peek());
+        }
+    }
+
+    private void wake(int cpu) {
+        idle.remove(cpu);
+        schedule(cpu, clock, DECIDE);
+    }
+
+    // Take a waiting process from the most loaded CPU; false if none has one to give
+    private boolean steal(int thief) {
+        int victim = mostLoaded.peek();
+        if (victim == thief || load[victim] < 2) {
+            return false;
+        }
+        int id = cpus[victim].migrateOut(running[victim]);
+        if (id == NONE) {
+            return false;
+        }
+        changeLoad(victim, -1);
+        migrationsOut[victim]++;
+        cpus[thief].admit(id);
+        changeLoad(thief, 1);
+        migrationsIn[thief]++;
+        return true;
+    }
+
+    private void changeLoad(int cpu, int delta) {
+        load[cpu] += delta;
+        leastLoaded.set(cpu, load[cpu]);
+        mostLoaded.set(cpu, -load[cpu]);
+    }
+
+    // Min-heap of CPU numbers by an int key, ties to the lowest number. The key and CPU are
+    // packed into one long, so a comparison is a single long compare.
+    private static class CpuHeap {
+        private final long[] heap;
+        private final int[] position;
+        private int size = 0;
+
+        CpuHeap(int cpus) {
+            this.heap = new long[cpus];
+            this.position = new int[cpus];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peek() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return (int) heap[0];
+        }
+
+        // Add the CPU, or move it if it is already in the heap
+        void set(int cpu, int key) {
+            long entry = ((long) key << 32) | cpu;
+            int pos = position[cpu];
+            if (pos < 0) {
+                pos = size++;
+            } else if (entry > heap[pos]) {
+                siftDown(pos, entry);
+                return;
+            }
+            siftUp(pos, entry);
+        }
+
+        void remove(int cpu) {
+            int pos = position[cpu];
+            if (pos < 0) {
+                return;
+            }
+            position[cpu] = -1;
+            long last = heap[--size];
+            if (pos == size) {
+                return;
+            }
+            if (last < heap[pos]) {
+                siftUp(pos, last);
+            } else {
+                siftDown(pos, last);
+            }
+        }
+
+        private void siftUp(int pos, long entry) {
+            while (pos > 0) {
+                int parentPos = (pos - 1) >>> 1;
+                long parent = heap[parentPos];
+                if (parent <= entry) {
+                    break;
+                }
+                place(pos, parent);
+                pos = parentPos;
+            }
+            place(pos, entry);
+        }
+
+        private void siftDown(int pos, long entry) {
+            while (true) {
+                int childPos = 2 * pos + 1;
+                if (childPos >= size) {
+                    break;
+                }
+                if (childPos + 1 < size && heap[childPos + 1] < heap[childPos]) {
+                    childPos++;
+                }
+                long child = heap[childPos];
+                if (entry <= child) {
+                    break;
+                }
+                place(pos, child);
+                pos = childPos;
+            }
+            place(pos, entry);
+        }
+
+        private void place(int pos, long entry) {
+            heap[pos] = entry;
+            position[(int) entry] = pos;
+        }
+    }
+
+    public int getCpuCount() {
+        return cpus.length;
+    }
+
+    public SchedulerType getType() {
+        return type;
+    }
+
+    // Time the last process completed
+    public int getMakespan() {
+        return makespan;
+    }
+
+    // Time the CPU spent running processes
+    public long getBusyTime(int cpu) {
+        return busyTime[cpu];
+    }
+
+    // Time the CPU spent in context switches
+    public long getSwitchTime(int cpu) {
+        return switchTime[cpu];
+    }
+
+    public long getContextSwitches(int cpu) {
+        return contextSwitches[cpu];
+    }
+
+    // Share of the run, up to the last completion, the CPU spent running processes
+    public double getUtilization(int cpu) {
+        return makespan == 0 ? 0 : (double) busyTime[cpu] / makespan;
+    }
+
+    // Processes this CPU took from another
+    public long getMigrationsIn(int cpu) {
+        return migrationsIn[cpu];
+    }
+
+    // Processes another CPU took from this one
+    public long getMigrationsOut(int cpu) {
+        return migrationsOut[cpu];
+    }
+
+    public long getMigrations() {
+        long total = 0;
+        for (long count : migrationsIn) {
+            total += count;
+        }
+        return total;
+    }
+
+    public ExecutionTimeline getTimeline(int cpu) {
+        return cpus[cpu].getTimeline();
+    }
+
+    public RunStatistics getStatistics() {
+        return statistics;
+    }
+
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    public List<Process> getProcesses() {
+        return table.getProcesses();
+    }
+
+    public void close() {
+        for (SchedulerBase cpu : cpus) {
+            cpu.getTimeline().close();
+        }
+    }
+
+    // Summary followed by one line per CPU
+    public void writeReport(Appendable out) throws IOException {
+        writeReport(out, true);
+    }
+
+    // Summary, then the per-CPU lines if perCpu is set
+    public void writeReport(Appendable out, boolean perCpu) throws IOException {
+        out.append(String.format(Locale.ROOT, "%s on %d CPUs (%s placement, work stealing %s)%n",
+                type.getLabel(), cpus.length, placement.name().toLowerCase().replace('_', '-'), workStealing ? "on" : "off"));
+        if (statistics.getCompletedCount() > 0) {
+            out.append(String.format(Locale.ROOT, "Average Waiting Time: %.2f%n", statistics.getAverageWaitingTime()));
+            out.append(String.format(Locale.ROOT, "Average Turnaround Time: %.2f%n", statistics.getAverageTurnaroundTime()));
+            out.append(String.format(Locale.ROOT, "Waiting Time p50/p95/p99: %d / %d / %d%n",
+                    statistics.getWaitingTimePercentile(0.50), statistics.getWaitingTimePercentile(0.95),
+                    statistics.getWaitingTimePercentile(0.99)));
+        }
+        out.append(String.format(Locale.ROOT, "Makespan: %d%nMigrations: %d%n", makespan, getMigrations()));
+        if (!perCpu) {
+            return;
+        }
+        out.append(String.format("%6s %12s %12s %10s %10s %10s%n", "CPU", "Busy", "Switching", "Util %", "Migr In", "Migr Out"));
+        for (int cpu = 0; cpu < cpus.length; cpu++) {
+            out.append(String.format(Locale.ROOT, "%6d %12d %12d %10.1f %10d %10d%n", cpu, busyTime[cpu], switchTime[cpu],
+                    100 * getUtilization(cpu), migrationsIn[cpu], migrationsOut[cpu]));
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package schedulers;
+
+import models.ProcessTable;
+import models.QuantileSketch;
+import models.RunStatistics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Runs schedulers over a grid of parameters on one parsed workload: every
+// context switch time with every rrQuantum (RR) or agingInterval (Priority);
+// SJF and AG only take the context switch time. Points run on a fork-join
+// pool, split recursively so idle workers steal what is left, and each
+// finished point goes to the listener straight away.
+//
+// Points are compared on three times to minimize: average waiting, p99
+// waiting and max turnaround. A point is Pareto-best if no other point with
+// the same context switch time is at least as good on all three and better
+// on one. With cut-off on, a running point is stopped as soon as the times
+// it can still reach are already beaten by a finished point.
+public class ParameterSweep {
+    // Completions between two cut-off checks: at least CUT_OFF_INTERVAL, and no more than
+    // about CUT_OFF_CHECKS checks per run, as each check reads the whole table
+    private static final int CUT_OFF_INTERVAL = 1024;
+    private static final int CUT_OFF_CHECKS = 64;
+
+    private final ProcessTable workload;
+    private List<SchedulerType> schedulers = Arrays.asList(SchedulerType.RR, SchedulerType.PRIORITY);
+    private int[] contextSwitches = {0};
+    private int[] rrQuanta = {};
+    private int[] agingIntervals = {};
+    private boolean cutOff = true;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // Receives each point as it finishes; calls are never concurrent
+    public interface Listener {
+        void pointFinished(Point point);
+    }
+
+    // One scheduler with one set of parameters, and its results
+    public static class Point {
+        private final SchedulerType type;
+        private final int contextSwitch;
+        private final int rrQuantum;
+        private final int agingInterval;
+        private long completed;
+        private double averageWaitingTime;
+        private double averageTurnaroundTime;
+        private int p50WaitingTime;
+        private int p95WaitingTime;
+        private int p99WaitingTime;
+        private int maxTurnaroundTime;
+        private double wallTimeMillis;
+        private boolean cutOff;
+
+        Point(SchedulerType type, int contextSwitch, int rrQuantum, int agingInterval) {
+            this.type = type;
+            this.contextSwitch = contextSwitch;
+            this.rrQuantum = rrQuantum;
+            this.agingInterval = agingInterval;
+        }
+
+        public SchedulerType getType() {
+            return type;
+        }
+        public int getContextSwitch() {
+            return contextSwitch;
+        }
+        // -1 for schedulers that do not use it
+        public int getRrQuantum() {
+            return rrQuantum;
+        }
+        // -1 for schedulers that do not use it
+        public int getAgingInterval() {
+            return agingInterval;
+        }
+        public long getCompletedCount() {
+            return completed;
+        }
+        public double getAverageWaitingTime() {
+            return averageWaitingTime;
+        }
+        public double getAverageTurnaroundTime() {
+            return averageTurnaroundTime;
+        }
+        public int getP50WaitingTime() {
+            return p50WaitingTime;
+        }
+        public int getP95WaitingTime() {
+            return p95WaitingTime;
+        }
+        public int getP99WaitingTime() {
+            return p99WaitingTime;
+        }
+        public int getMaxTurnaroundTime() {
+            return maxTurnaroundTime;
+        }
+        public double getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+        // True if the run was stopped because a finished point beats it; the times
+        // are then those of the processes completed before the stop
+        public boolean isCutOff() {
+            return cutOff;
+        }
+
+        // At least as good on every time and better on one
+        public boolean dominates(Point other) {
+            return dominates(averageWaitingTime, p99WaitingTime, maxTurnaroundTime,
+                    other.averageWaitingTime, other.p99WaitingTime, other.maxTurnaroundTime);
+        }
+
+        private static boolean dominates(double averageWaiting, int p99Waiting, int maxTurnaround,
+                                         double otherAverageWaiting, int otherP99Waiting, int otherMaxTurnaround) {
+            return averageWaiting <= otherAverageWaiting && p99Waiting <= otherP99Waiting && maxTurnaround <= otherMaxTurnaround
+                    && (averageWaiting < otherAverageWaiting || p99Waiting < otherP99Waiting || maxTurnaround < otherMaxTurnaround);
+        }
+    }
+
+    public ParameterSweep(ProcessTable workload) {
+        this.workload = workload;
+    }
+
+    public void setSchedulers(List<SchedulerType> schedulers) {
+        this.schedulers = schedulers;
+    }
+
+    public void setContextSwitches(int... contextSwitches) {
+        this.contextSwitches = contextSwitches;
+    }
+
+    public void setRrQuanta(int... rrQuanta) {
+        this.rrQuanta = rrQuanta;
+    }
+
+    public void setAgingIntervals(int... agingIntervals) {
+        this.agingIntervals = agingIntervals;
+    }
+
+    public void setCutOff(boolean cutOff) {
+        this.cutOff = cutOff;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // The grid in the order points are handed out. Schedulers without a parameter come first,
+    // then the larger quanta and aging intervals: those are the shortest runs, so the finished
+    // points that cut-off compares against are there early.
+    public List<Point> points() {
+        List<SchedulerType> order = new ArrayList<>(schedulers);
+        order.sort(Comparator.comparing(type -> type == SchedulerType.RR || type == SchedulerType.PRIORITY));
+        List<Point> points = new ArrayList<>();
+        for (int contextSwitch : contextSwitches) {
+            for (SchedulerType type : order) {
+                if (type == SchedulerType.RR) {
+                    for (int rrQuantum : descending(rrQuanta)) {
+                        points.add(new Point(type, contextSwitch, rrQuantum, -1));
+                    }
+                } else if (type == SchedulerType.PRIORITY) {
+                    for (int agingInterval : descending(agingIntervals)) {
+                        points.add(new Point(type, contextSwitch, -1, agingInterval));
+                    }
+                } else {
+                    points.add(new Point(type, contextSwitch, -1, -1));
+                }
+            }
+        }
+        return points;
+    }
+
+    private static int[] descending(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+            int swap = sorted[i];
+            sorted[i] = sorted[j];
+            sorted[j] = swap;
+        }
+        return sorted;
+    }
+
+    // Run every point and return them all, in the order of points()
+    public List<Point> run(Listener listener) {
+        List<Point> points = points();
+        if (!points.isEmpty()) {
+            pool.invoke(new Run(this, points, new Front(), listener, 0, points.size()));
+        }
+        return points;
+    }
+
+    // Points no other point with the same context switch time dominates; cut-off points never are
+    public static List<Point> paretoBest(List<Point> points) {
+        List<Point> best = new ArrayList<>();
+        for (Point point : points) {
+            if (point.cutOff) {
+                continue;
+            }
+            boolean dominated = false;
+            for (Point other : points) {
+                if (!other.cutOff && other.contextSwitch == point.contextSwitch && other.dominates(point)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                best.add(point);
+            }
+        }
+        return best;
+    }
+
+    // Finished points, read by running points to decide on a cut-off, and the listener's lock
+    private static class Front {
+        private final List<Point> finished = new ArrayList<>();
+
+        synchronized void finish(Point point, Listener listener) {
+            if (!point.cutOff) {
+                finished.add(point);
+            }
+            if (listener != null) {
+                listener.pointFinished(point);
+            }
+        }
+
+        // True if a finished point with the same context switch time beats every result
+        // the given bounds still allow
+        synchronized boolean beats(int contextSwitch, double averageWaiting, int p99Waiting, int maxTurnaround) {
+            for (Point point : finished) {
+                if (point.contextSwitch == contextSwitch && Point.dominates(point.averageWaitingTime,
+                        point.p99WaitingTime, point.maxTurnaroundTime, averageWaiting, p99Waiting, maxTurnaround)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Points [from, to), split in halves until one is left
+    private static class Run extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ParameterSweep sweep;
+        private final transient List<Point> points;
+        private final transient Front front;
+        private final transient Listener listener;
+        private final int from;
+        private final int to;
+
+        Run(ParameterSweep sweep, List<Point> points, Front front, Listener listener, int from, int to) {
+            this.sweep = sweep;
+            this.points = points;
+            this.front = front;
+            this.listener = listener;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Run(sweep, points, front, listener, from, middle),
+                        new Run(sweep, points, front, listener, middle, to));
+                return;
+            }
+            Point point = points.get(from);
+            sweep.runPoint(point, front);
+            front.finish(point, listener);
+        }
+    }
+
+    // Bound the final times of a running point from below and ask whether a finished point
+    // beats the bounds. A process still to finish needs at least its remaining time, so its
+    // waiting and turnaround times can only end up higher than if it finished right after it.
+    // waiting is the point's own sketch, cleared and refilled on every check.
+    private static boolean isBeaten(Point point, Front front, ProcessTable table, RunStatistics statistics, int currentTime,
+                                    QuantileSketch waiting) {
+        waiting.clear();
+        waiting.merge(statistics.getWaitingTimes());
+        long maxTurnaround = statistics.getMaxTurnaroundTime();
+        for (int id = 0; id < table.size(); id++) {
+            if (table.isComplete(id)) {
+                continue;
+            }
+            int arrival = table.getArrivalTime(id);
+            if (arrival > currentTime) {
+                waiting.add(0);
+                continue;
+            }
+            long turnaround = (long) currentTime + table.getRemainingTime(id) - arrival;
+            waiting.add((int) Math.min(Integer.MAX_VALUE, turnaround - table.getBurstTime(id)));
+            maxTurnaround = Math.max(maxTurnaround, turnaround);
+        }
+        return front.beats(point.contextSwitch, waiting.getAverage(),
+                waiting.getPercentileLowerBound(0.99, table.size()), (int) Math.min(Integer.MAX_VALUE, maxTurnaround));
+    }
+
+    private void runPoint(Point point, Front front) {
+        long start = System.nanoTime();
+        SchedulerBase scheduler = point.type.create(workload.copy(), point.contextSwitch, point.rrQuantum, point.agingInterval);
+        scheduler.setVerbose(false);
+        if (cutOff) {
+            ProcessTable table = scheduler.getTable();
+            int interval = Math.max(CUT_OFF_INTERVAL, table.size() / CUT_OFF_CHECKS);
+            QuantileSketch waiting = new QuantileSketch();
+            scheduler.setStopCondition((statistics, currentTime) -> statistics.getCompletedCount() % interval == 0
+                    && isBeaten(point, front, table, statistics, currentTime, waiting));
+        }
+        scheduler.schedule();
+        scheduler.getTimeline().close();
+
+        RunStatistics statistics = scheduler.getStatistics();
+        point.completed = statistics.getCompletedCount();
+        point.cutOff = scheduler.isStopped();
+        if (point.completed > 0) {
+            point.averageWaitingTime = statistics.getAverageWaitingTime();
+            point.averageTurnaroundTime = statistics.getAverageTurnaroundTime();
+            point.p50WaitingTime = statistics.getWaitingTimePercentile(0.50);
+            point.p95WaitingTime = statistics.getWaitingTimePercentile(0.95);
+            point.p99WaitingTime = statistics.getWaitingTimePercentile(0.99);
+            point.maxTurnaroundTime = statistics.getMaxTurnaroundTime();
+        }
+        point.wallTimeMillis = (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -1,112 +1,93 @@
 package schedulers;
 
 import models.Process;
+import models.ProcessTable;
 import java.util.*;
 
 public class PreemptiveSJF extends SchedulerBase {
-    private List<String> executionOrder;
+    // Queued processes keep their remaining time while they wait, so the heap order stays valid
+    private IndexedMinHeap readyQueue;
 
     public PreemptiveSJF(List<Process> processes, int contextSwitchTime) {
         super(processes, contextSwitchTime);
-        this.executionOrder = new ArrayList<>();
+    }
+
+    public PreemptiveSJF(ProcessTable table, int contextSwitchTime) {
+        super(table, contextSwitchTime);
     }
 
     @Override
     public void schedule() {
-        System.out.println("Running Preemptive SJF ...");
-
-        int currentTime = 0;
-        int completedProcesses = 0;
-        Process currentProcess = null;
-        String lastSegmentProcess = null;
-
-        PriorityQueue<Process> readyQueue = new PriorityQueue<>(
-                Comparator.comparingInt(Process::getRemainingTime)
-                        .thenComparingInt(Process::getArrivalTime)
-        );
-
-        Set<Process> arrived = new HashSet<>();
-
-        while (completedProcesses < processes.size()) {
-            // Add newly arrived processes
-            for (Process p : processes) {
-                if (p.getArrivalTime() <= currentTime && !arrived.contains(p)) {
-                    readyQueue.add(p);
-                    arrived.add(p);
-                }
-            }
-
-            // If CPU idle and queue empty, jump to next arrival
-            if (currentProcess == null && readyQueue.isEmpty()) {
-                int nextArrival = Integer.MAX_VALUE;
-                for (Process p : processes) {
-                    if (!arrived.contains(p)) {
-                        nextArrival = Math.min(nextArrival, p.getArrivalTime());
-                    }
-                }
-                if (nextArrival != Integer.MAX_VALUE) {
-                    currentTime = nextArrival;
-                }
-                continue;
-            }
-
-            // Pick next process if CPU is idle
-            if (currentProcess == null && !readyQueue.isEmpty()) {
-                // Add context switch time if switching from different process
-                if (lastSegmentProcess != null) {
-                    currentTime += contextSwitchTime;
-                }
-
-                // Now select the shortest job
-                currentProcess = readyQueue.poll();
-
-                // Record execution segment only if different from last
-                if (lastSegmentProcess == null || !lastSegmentProcess.equals(currentProcess.getName())) {
-                    executionOrder.add(currentProcess.getName());
-                }
-                lastSegmentProcess = currentProcess.getName();
-            }
-
-            // Execute current process for 1 time unit
-            if (currentProcess != null) {
-                currentProcess.setRemainingTime(currentProcess.getRemainingTime() - 1);
-                currentTime++;
-
-                // Add any processes that arrived at this exact time
-                for (Process p : processes) {
-                    if (p.getArrivalTime() <= currentTime && !arrived.contains(p)) {
-                        readyQueue.add(p);
-                        arrived.add(p);
-                    }
-                }
-
-                // Check if current process completed
-                if (currentProcess.isComplete()) {
-                    currentProcess.setCompletionTime(currentTime);
-                    completedProcesses++;
-                    currentProcess = null;
-                } else {
-                    // Check for preemption - if shorter job in queue
-                    if (!readyQueue.isEmpty()) {
-                        Process shortest = readyQueue.peek();
-                        if (shortest.getRemainingTime() < currentProcess.getRemainingTime()) {
-                            readyQueue.add(currentProcess);
-                            currentProcess = null;
-                        }
-                    }
-                }
-            }
+        log("Running Preemptive SJF ...");
+
+        prepare(null);
+        simulate();
+
+        // Every process shares the same read-only execution order
+        table.setExecutionOrder(executionOrder.asList());
+
+        calculateTimes();
+    }
+
+    @Override
+    protected void prepare(SchedulerBase sibling) {
+        readyQueue = sibling == null
+                ? new IndexedMinHeap(table.size(), this::isShorter)
+                : new IndexedMinHeap(((PreemptiveSJF) sibling).readyQueue, this::isShorter);
+    }
+
+    @Override
+    protected void admit(int id) {
+        readyQueue.add(id);
+    }
+
+    @Override
+    protected int selectNext(int running, int currentTime) {
+        // Preemption is decided when a slice ends
+        if (running != NONE) {
+            return running;
         }
+        return readyQueue.isEmpty() ? NONE : readyQueue.poll();
+    }
 
-        // Store execution order
-        for (Process p : processes) {
-            p.setExecutionOrder(new ArrayList<>(executionOrder));
+    // Execute the current process until it completes or the next process arrives.
+    // Only an arrival can preempt it, so nothing changes in between.
+    // Processes that arrived during the context switch are checked after the first unit.
+    @Override
+    protected int runUntil(int id, int currentTime) {
+        if (!readyQueue.isEmpty() && table.getRemainingTime(readyQueue.peek()) < table.getRemainingTime(id)) {
+            return currentTime + 1;
         }
+        return currentTime + Math.max(1, nextArrivalTime() - currentTime);
+    }
 
-        calculateTimes();
+    @Override
+    protected boolean endSlice(int id, int start, int end) {
+        // Add any processes that arrived at this exact time
+        admitArrivals(end);
+
+        // Check for preemption - if shorter job in queue
+        if (!readyQueue.isEmpty() && table.getRemainingTime(readyQueue.peek()) < table.getRemainingTime(id)) {
+            readyQueue.add(id);
+            return true;
+        }
+        return false;
+    }
+
+    // The running process is not queued, so any queued one can go
+    @Override
+    protected int migrateOut(int running) {
+        return readyQueue.isEmpty() ? NONE : readyQueue.poll();
     }
 
-    public List<String> getExecutionOrder() {
-        return executionOrder;
+    // Full ties go to the process listed first in the input
+    private boolean isShorter(int id1, int id2) {
+        if (table.getRemainingTime(id1) != table.getRemainingTime(id2)) {
+            return table.getRemainingTime(id1) < table.getRemainingTime(id2);
+        }
+        if (table.getArrivalTime(id1) != table.getArrivalTime(id2)) {
+            return table.getArrivalTime(id1) < table.getArrivalTime(id2);
+        }
+        return id1 < id2;
     }
 }
@@ -1,6 +1,7 @@
 package schedulers;
 
 import models.Process;
+import models.ProcessTable;
 
 import java.util.*;
 
@@ -8,184 +9,182 @@ public class PriorityScheduler extends SchedulerBase {
     private static final int HIGHEST_PRIORITY = 1;
 
     private final int agingLimit;
-    private final List<String> executionOrder = new ArrayList<>();
-    private final Map<String, Integer> lastAgedTime = new HashMap<>();
+
+    // Arrived, unfinished process ids by (priority, arrival, id)
+    private IndexedMinHeap readyQueue;
+
+    // Aging is applied lazily: a waiting process ages every agingLimit units after it last ran
+    // (or arrived), so instead of sweeping every process each tick the waiting ones sit in a
+    // timer heap keyed by lastAgedTime + agingLimit and are only touched when they actually age.
+    private int[] lastAgedTime;
+    private IndexedMinHeap agingQueue;
 
     public PriorityScheduler(List<Process> processes, int contextSwitchTime, int agingLimit) {
         super(processes, contextSwitchTime);
         this.agingLimit = agingLimit;
-        initializeAgingTracker();
+    }
+
+    public PriorityScheduler(ProcessTable table, int contextSwitchTime, int agingLimit) {
+        super(table, contextSwitchTime);
+        this.agingLimit = agingLimit;
     }
 
     @Override
     public void schedule() {
-        System.out.println("Running Priority Scheduling with Aging (Limit: " + agingLimit + ")...");
-
-        Process currentProcess;
-        Process previousProcess = null;
-        int currentTime = 0;
-        int completedCount = 0;
-
-        while (completedCount < processes.size()) {
-            Process selectedProcess = selectNextProcess(currentTime, previousProcess);
-
-            if (selectedProcess == null) {
-                handleIdleTime(currentTime);
-                currentTime++;
-                continue;
-            }
-
-            if (previousProcess != null && isProcessSwitchRequired(selectedProcess, previousProcess)) {
-                currentTime = performContextSwitch(currentTime);
-                selectedProcess = selectNextProcess(currentTime, previousProcess);
-                if (selectedProcess == null) continue;
-            }
-
-            logExecutionIfNewProcess(selectedProcess, previousProcess);
-            currentProcess = selectedProcess;
-
-            executeProcess(currentProcess, currentTime);
-            currentTime++;
-
-            if (currentProcess.isComplete()) {
-                completeProcess(currentProcess, currentTime);
-                completedCount++;
-            }
-
-            previousProcess = currentProcess;
-        }
-
+        log("Running Priority Scheduling with Aging (Limit: " + agingLimit + ")...");
+        prepare(null);
+        simulate();
         calculateTimes();
     }
 
-    private void initializeAgingTracker() {
-        for (Process process : processes) {
-            lastAgedTime.put(process.getName(), process.getArrivalTime());
+    @Override
+    protected void prepare(SchedulerBase sibling) {
+        if (sibling == null) {
+            readyQueue = new IndexedMinHeap(table.size(), this::hasHigherPriority);
+            lastAgedTime = new int[table.size()];
+            agingQueue = new IndexedMinHeap(table.size(), this::agesBefore);
+            initializeAgingTracker();
+        } else {
+            PriorityScheduler other = (PriorityScheduler) sibling;
+            readyQueue = new IndexedMinHeap(other.readyQueue, this::hasHigherPriority);
+            lastAgedTime = other.lastAgedTime;
+            agingQueue = new IndexedMinHeap(other.agingQueue, this::agesBefore);
         }
     }
 
-    private Process selectNextProcess(int currentTime, Process previousProcess) {
-        List<Process> readyProcesses = getReadyProcesses(currentTime);
-
-        if (readyProcesses.isEmpty()) {
-            return null;
+    private void initializeAgingTracker() {
+        for (int id = 0; id < table.size(); id++) {
+            lastAgedTime[id] = table.getArrivalTime(id);
         }
+    }
 
-        return findHighestPriorityProcess(readyProcesses);
+    @Override
+    protected void admit(int id) {
+        readyQueue.add(id);
+        startWaiting(id);
     }
 
-    private List<Process> getReadyProcesses(int currentTime) {
-        List<Process> readyProcesses = new ArrayList<>();
+    // The running process stays in the ready queue, so the best process is always on top
+    @Override
+    protected int selectNext(int running, int currentTime) {
+        ageWaitingProcesses(currentTime);
 
-        for (Process process : processes) {
-            if (isProcessReady(process, currentTime)) {
-                readyProcesses.add(process);
-            }
+        if (readyQueue.isEmpty()) {
+            return NONE;
         }
 
-        return readyProcesses;
+        return readyQueue.peek();
     }
 
-    private boolean isProcessReady(Process process, int currentTime) {
-        return !process.isComplete() && process.getArrivalTime() <= currentTime;
+    // Waiting processes, including the one switched out, keep aging during the switch,
+    // so the choice is made again once it is over
+    @Override
+    protected int reselect(int selected, int currentTime) {
+        return selectNext(NONE, currentTime);
     }
 
-    private Process findHighestPriorityProcess(List<Process> readyProcesses) {
-        Process bestProcess = null;
-
-        for (Process process : readyProcesses) {
-            if (bestProcess == null || hasHigherPriority(process, bestProcess)) {
-                bestProcess = process;
-            }
+    // The choice can only change when a process arrives or a waiting process ages
+    @Override
+    protected int runUntil(int id, int currentTime) {
+        int until = nextArrivalTime();
+        if (!agingQueue.isEmpty()) {
+            until = Math.min(until, lastAgedTime[agingQueue.peek()] + agingLimit);
         }
-
-        return bestProcess;
+        return until;
     }
 
-    private boolean hasHigherPriority(Process process1, Process process2) {
-        if (process1.getPriority() < process2.getPriority()) {
-            return true;
-        }
-
-        if (process1.getPriority() == process2.getPriority()) {
-            return process1.getArrivalTime() < process2.getArrivalTime();
-        }
-
+    @Override
+    protected boolean endSlice(int id, int start, int end) {
+        lastAgedTime[id] = end;
         return false;
     }
 
-    private boolean isProcessSwitchRequired(Process nextProcess, Process previousProcess) {
-        return !nextProcess.getName().equals(previousProcess.getName());
-    }
-
-    private void handleIdleTime(int currentTime) {
-        ageWaitingProcesses(currentTime, null);
-    }
+    private boolean hasHigherPriority(int id1, int id2) {
+        if (table.getPriority(id1) != table.getPriority(id2)) {
+            return table.getPriority(id1) < table.getPriority(id2);
+        }
 
-    private int performContextSwitch(int currentTime) {
-        for (int i = 0; i < contextSwitchTime; i++) {
-            currentTime++;
-            ageWaitingProcesses(currentTime, null);
+        if (table.getArrivalTime(id1) != table.getArrivalTime(id2)) {
+            return table.getArrivalTime(id1) < table.getArrivalTime(id2);
         }
-        return currentTime;
+
+        return id1 < id2;
     }
 
-    private void logExecutionIfNewProcess(Process currentProcess, Process previousProcess) {
-        if (previousProcess == null || !previousProcess.getName().equals(currentProcess.getName())) {
-            executionOrder.add(currentProcess.getName());
+    private boolean agesBefore(int id1, int id2) {
+        if (lastAgedTime[id1] != lastAgedTime[id2]) {
+            return lastAgedTime[id1] < lastAgedTime[id2];
         }
+        return id1 < id2;
     }
 
-    private void executeProcess(Process process, int currentTime) {
-        process.setRemainingTime(process.getRemainingTime() - 1);
-        updateAgingTracker(process, currentTime + 1); // +1 because time increments after execution
-        ageWaitingProcesses(currentTime + 1, process);
+    @Override
+    protected void startRunning(int id, int currentTime) {
+        // The running process does not age; its clock restarts when it stops running
+        agingQueue.remove(id);
     }
 
-    private void updateAgingTracker(Process process, int currentTime) {
-        lastAgedTime.put(process.getName(), currentTime);
+    @Override
+    protected void stopRunning(int id, int currentTime) {
+        startWaiting(id);
     }
 
-    private void ageWaitingProcesses(int currentTime, Process runningProcess) {
-        if (agingLimit <= 0) return;
-
-        for (Process process : processes) {
-            if (shouldSkipAging(process, currentTime, runningProcess)) {
-                continue;
-            }
-
-            ageProcessIfNeeded(process, currentTime);
+    private void startWaiting(int id) {
+        if (agingLimit > 0 && table.getPriority(id) > HIGHEST_PRIORITY) {
+            agingQueue.add(id);
         }
     }
 
-    private boolean shouldSkipAging(Process process, int currentTime, Process runningProcess) {
-        return process.isComplete() ||
-                process.getArrivalTime() > currentTime ||
-                (runningProcess != null && process.getName().equals(runningProcess.getName()));
-    }
+    // Apply every aging step that is due by currentTime
+    private void ageWaitingProcesses(int currentTime) {
+        while (!agingQueue.isEmpty()) {
+            int id = agingQueue.peek();
+            int agingTime = lastAgedTime[id] + agingLimit;
+            if (agingTime > currentTime) {
+                break;
+            }
 
-    private void ageProcessIfNeeded(Process process, int currentTime) {
-        int lastAged = lastAgedTime.getOrDefault(process.getName(), process.getArrivalTime());
+            increaseProcessPriority(id);
+            readyQueue.update(id);
+            lastAgedTime[id] = agingTime;
 
-        if (currentTime - lastAged >= agingLimit) {
-            increaseProcessPriority(process);
-            lastAgedTime.put(process.getName(), currentTime);
+            if (table.getPriority(id) > HIGHEST_PRIORITY) {
+                agingQueue.update(id);
+            } else {
+                // Already at the top priority, further aging changes nothing
+                agingQueue.remove(id);
+            }
         }
     }
 
-    private void increaseProcessPriority(Process process) {
-        if (process.getPriority() > HIGHEST_PRIORITY) {
-            process.setPriority(process.getPriority() - 1);
+    private void increaseProcessPriority(int id) {
+        if (table.getPriority(id) > HIGHEST_PRIORITY) {
+            table.setPriority(id, table.getPriority(id) - 1);
         }
     }
 
-    private void completeProcess(Process process, int completionTime) {
-        process.setCompletionTime(completionTime);
-        lastAgedTime.remove(process.getName());
+    @Override
+    protected void onComplete(int id, int currentTime) {
+        readyQueue.remove(id);
+        agingQueue.remove(id);
     }
 
-    public List<String> getExecutionOrder() {
-        return Collections.unmodifiableList(executionOrder);
+    // The best waiting process goes; the running one sits in the ready queue too and stays.
+    // It keeps aging from the time it last ran, as the aging clock is per process.
+    @Override
+    protected int migrateOut(int running) {
+        boolean holdsRunning = running != NONE && readyQueue.contains(running);
+        if (readyQueue.size() <= (holdsRunning ? 1 : 0)) {
+            return NONE;
+        }
+        if (holdsRunning) {
+            readyQueue.remove(running);
+        }
+        int id = readyQueue.poll();
+        if (holdsRunning) {
+            readyQueue.add(running);
+        }
+        agingQueue.remove(id);
+        return id;
     }
-
-}
\ No newline at end of file
+}
@@ -1,126 +1,134 @@
 package schedulers;
 
 import models.Process;
+import models.ProcessTable;
 import java.util.*;
 
 public class RoundRobinScheduler extends SchedulerBase {
     private int timeQuantum;
-    private List<String> executionOrder = new ArrayList<>();
+    private IntRingQueue readyQueue;
+    // Dispatches left before whole rounds are tried again after an attempt failed
+    private int dispatchesBeforeFastForward;
 
     public RoundRobinScheduler(List<Process> processes, int contextSwitchTime, int timeQuantum) {
         super(processes, contextSwitchTime);
         this.timeQuantum = timeQuantum;
     }
 
+    public RoundRobinScheduler(ProcessTable table, int contextSwitchTime, int timeQuantum) {
+        super(table, contextSwitchTime);
+        this.timeQuantum = timeQuantum;
+    }
+
     @Override
     public void schedule() {
-        System.out.println("Running Round Robin...");
+        log("Running Round Robin...");
 
-        // Create a queue for ready processes
-        Queue<Process> readyQueue = new LinkedList<>();
+        prepare(null);
 
-        // Track remaining burst time for each process
-        Map<String, Integer> remainingTime = new HashMap<>();
-        for (Process p : processes) {
-            remainingTime.put(p.getName(), p.getBurstTime());
+        // Every process starts with its full burst time remaining
+        for (int id = 0; id < table.size(); id++) {
+            table.setRemainingTime(id, table.getBurstTime(id));
         }
 
-        // Sort processes by arrival time
-        List<Process> sortedProcesses = new ArrayList<>(processes);
-        sortedProcesses.sort(Comparator.comparingInt(Process::getArrivalTime));
-
-        int currentTime = 0;
-        int completedProcesses = 0;
-        int processIndex = 0;
-        Process currentProcess = null;
-
-        // Track which processes have been added to queue
-        Set<String> inQueue = new HashSet<>();
-
-        while (completedProcesses < processes.size()) {
-            // Add newly arrived processes to ready queue
-            while (processIndex < sortedProcesses.size() &&
-                    sortedProcesses.get(processIndex).getArrivalTime() <= currentTime) {
-                Process p = sortedProcesses.get(processIndex);
-                if (!inQueue.contains(p.getName())) {
-                    readyQueue.add(p);
-                    inQueue.add(p.getName());
-                }
-                processIndex++;
-            }
+        simulate();
 
-            // If queue is empty, jump to next arrival time
-            if (readyQueue.isEmpty()) {
-                if (processIndex < sortedProcesses.size()) {
-                    currentTime = sortedProcesses.get(processIndex).getArrivalTime();
-                }
-                continue;
-            }
+        // Calculate waiting and turnaround times
+        calculateTimes();
 
-            // Get next process from queue
-            currentProcess = readyQueue.poll();
+        log("Round Robin scheduling completed.");
+    }
 
-            // Apply context switch time (except for the very first process)
-            if (currentTime > 0) {
-                currentTime += contextSwitchTime;
-            }
+    @Override
+    protected void prepare(SchedulerBase sibling) {
+        // Ready process ids in a ring buffer, so dispatching never boxes or allocates;
+        // the queue of one CPU among several starts small and grows
+        readyQueue = new IntRingQueue(sibling == null ? table.size() : 16);
+        dispatchesBeforeFastForward = 0;
+    }
 
-            // Check again for arrivals during context switch
-            while (processIndex < sortedProcesses.size() &&
-                    sortedProcesses.get(processIndex).getArrivalTime() <= currentTime) {
-                Process p = sortedProcesses.get(processIndex);
-                if (!inQueue.contains(p.getName())) {
-                    readyQueue.add(p);
-                    inQueue.add(p.getName());
-                }
-                processIndex++;
-            }
+    @Override
+    protected void admit(int id) {
+        readyQueue.add(id);
+    }
 
-            // Track execution order
-            if (executionOrder.isEmpty()) {
-                executionOrder.add(currentProcess.getName());
-            }
-            if (!executionOrder.isEmpty() && !executionOrder.get(executionOrder.size() - 1).equals(currentProcess.getName())) {
-                executionOrder.add(currentProcess.getName());
-            }
+    @Override
+    protected int selectNext(int running, int currentTime) {
+        if (readyQueue.isEmpty()) {
+            return NONE;
+        }
+        dispatchesBeforeFastForward--;
+        return readyQueue.poll();
+    }
 
-            // Execute process for time quantum or remaining time (whichever is smaller)
-            int remaining = remainingTime.get(currentProcess.getName());
-            int executionTime = Math.min(timeQuantum, remaining);
-
-            currentTime += executionTime;
-            remaining -= executionTime;
-            remainingTime.put(currentProcess.getName(), remaining);
-
-            // Check for new arrivals during execution
-            while (processIndex < sortedProcesses.size() &&
-                    sortedProcesses.get(processIndex).getArrivalTime() <= currentTime) {
-                Process p = sortedProcesses.get(processIndex);
-                if (!inQueue.contains(p.getName())) {
-                    readyQueue.add(p);
-                    inQueue.add(p.getName());
-                }
-                processIndex++;
-            }
+    // With no arrival pending, RR is a fixed rotation: every round dispatches the queued
+    // processes in the same order, each paying a context switch and a full quantum.
+    // As long as no process can finish and nothing arrives, whole rounds are applied at once.
+    @Override
+    protected int fastForward(int currentTime) {
+        if (dispatchesBeforeFastForward > 0 || readyQueue.isEmpty() || timeQuantum <= 0
+                || (currentTime == 0 && contextSwitchTime > 0)) {
+            return currentTime;
+        }
 
-            // If process is finished
-            if (remaining == 0) {
-                currentProcess.setCompletionTime(currentTime);
-                completedProcesses++;
-                inQueue.remove(currentProcess.getName());
-            } else {
-                // Process not finished, add back to queue
-                readyQueue.add(currentProcess);
+        int count = readyQueue.size();
+        long roundTime = (long) count * (contextSwitchTime + timeQuantum);
+        // Stop before the next arrival, and before the round in which some process finishes
+        long rounds = (Integer.MAX_VALUE - (long) currentTime) / roundTime;
+        if (nextArrivalTime() != Integer.MAX_VALUE) {
+            rounds = Math.min(rounds, (nextArrivalTime() - 1L - currentTime) / roundTime);
+        }
+        for (int i = 0; i < count && rounds > 0; i++) {
+            rounds = Math.min(rounds, (table.getRemainingTime(readyQueue.get(i)) - 1) / timeQuantum);
+        }
+        if (rounds < 1) {
+            // Try again after a full round, so a failed check costs O(1) per dispatch
+            dispatchesBeforeFastForward = count;
+            return currentTime;
+        }
+
+        int slot = contextSwitchTime + timeQuantum;
+        if (count == 1 && contextSwitchTime == 0) {
+            // A lone process without switches simply keeps the CPU
+            executionOrder.record(readyQueue.get(0), currentTime, (int) (currentTime + rounds * timeQuantum));
+        } else {
+            // Record the first round, then repeat it for the others
+            for (int i = 0; i < count; i++) {
+                int start = currentTime + i * slot + contextSwitchTime;
+                executionOrder.record(readyQueue.get(i), start, start + timeQuantum);
             }
+            executionOrder.repeat(count, (int) rounds - 1, (int) roundTime);
         }
+        for (int i = 0; i < count; i++) {
+            int id = readyQueue.get(i);
+            table.setRemainingTime(id, (int) (table.getRemainingTime(id) - rounds * timeQuantum));
+        }
+        return (int) (currentTime + rounds * roundTime);
+    }
 
-        // Calculate waiting and turnaround times
-        calculateTimes();
+    // Another CPU takes from the back of the queue, the process this one would run last
+    @Override
+    protected int migrateOut(int running) {
+        return readyQueue.isEmpty() ? NONE : readyQueue.pollLast();
+    }
 
-        System.out.println("Round Robin scheduling completed.");
+    @Override
+    protected int contextSwitchBefore(int previous, int running, int currentTime) {
+        // Apply context switch time (except for the very first process)
+        return currentTime > 0 ? contextSwitchTime : 0;
     }
 
-    public List<String> getExecutionOrder() {
-        return executionOrder;
+    // Execute process for time quantum or remaining time (whichever is smaller)
+    @Override
+    protected int runUntil(int id, int currentTime) {
+        return currentTime + timeQuantum;
+    }
+
+    @Override
+    protected boolean endSlice(int id, int start, int end) {
+        // Check for new arrivals during execution, then add the process back to the queue
+        admitArrivals(end);
+        readyQueue.add(id);
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,274 @@
 package schedulers;
 
+import models.ExecutionTimeline;
 import models.Process;
+import models.ProcessTable;
+import models.RunStatistics;
+import models.TimelineIndex;
 import java.util.*;
+import java.util.function.IntConsumer;
 
 public abstract class SchedulerBase {
+    protected static final int NONE = -1;
+
+    // Caller's process list, or null when the scheduler was built from a table
     protected List<Process> processes;
     protected int contextSwitchTime;
+    // Scheduling runs against the table; rows are indexed by process id
+    protected final ProcessTable table;
+    protected ExecutionTimeline executionOrder;
+    // Updated as each process completes
+    protected RunStatistics statistics = new RunStatistics();
+
+    private ArrivalStream arrivals;
+    // Set when this instance is one CPU of a multi-core run, which owns the arrivals
+    MultiCoreScheduler multiCore = null;
+    private boolean verbose = true;
+    private StopCondition stopCondition = null;
+    private boolean stopped = false;
+    private final IntConsumer admitter = id -> admit(id);
 
     public SchedulerBase(List<Process> processes, int contextSwitchTime) {
         this.processes = processes;
         this.contextSwitchTime = contextSwitchTime;
+        this.table = ProcessTable.fromProcesses(processes);
+        this.executionOrder = new ExecutionTimeline(table);
+    }
+
+    public SchedulerBase(ProcessTable table, int contextSwitchTime) {
+        this.processes = null;
+        this.contextSwitchTime = contextSwitchTime;
+        this.table = table;
+        this.executionOrder = new ExecutionTimeline(table);
     }
 
     // Each scheduler must implement this
     public abstract void schedule();
 
-    // Calculate waiting and turnaround times
+    // Turn the progress messages of schedule() on or off; batch and parallel runs turn them off
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    // Asked after every completion whether the run is worth finishing; the table holds
+    // the state of the run at currentTime
+    public interface StopCondition {
+        boolean shouldStop(RunStatistics statistics, int currentTime);
+    }
+
+    // A run whose condition returns true ends at that completion; the remaining processes
+    // keep no completion time and only the statistics recorded so far are meaningful
+    public void setStopCondition(StopCondition stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    // True if the last run was ended by its stop condition
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    protected void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    // Policy hooks used by simulate(). A scheduler only decides who runs next
+    // and until when; the clock, arrivals, context switches, completions and
+    // the execution order are handled here.
+
+    // Set up the ready queue and other per-run state before simulate(). On a multi-core run
+    // every CPU has its own instance over the same table; sibling is an instance already
+    // prepared for another CPU, whose per-process arrays this one shares, or null.
+    protected abstract void prepare(SchedulerBase sibling);
+
+    // A process arrived and is ready to run
+    protected abstract void admit(int id);
+
+    // Process that should hold the CPU at currentTime, or NONE if nothing is ready.
+    // running is the process that holds the CPU now (NONE if it is free); returning a
+    // different process preempts it. The returned process must no longer be queued.
+    protected abstract int selectNext(int running, int currentTime);
+
+    // Time at which the process should stop so the policy can decide again.
+    // Stopping early is always safe; the slice also ends when the process completes.
+    protected abstract int runUntil(int id, int currentTime);
+
+    // A slice of an unfinished process ended. Returns true if the process gave up the
+    // CPU (and was put back in the ready queue), false if it keeps running.
+    protected abstract boolean endSlice(int id, int start, int end);
+
+    // Context switch time paid before the next process runs. previous is the process that
+    // ran last (NONE before the first one), running the process being preempted, if any.
+    protected int contextSwitchBefore(int previous, int running, int currentTime) {
+        return previous != NONE ? contextSwitchTime : 0;
+    }
+
+    // Context switch time paid right after a process left the CPU, before the next decision
+    protected int contextSwitchAfter(int id, boolean completed) {
+        return 0;
+    }
+
+    // Final choice after a context switch; arrivals during the switch have been admitted
+    protected int reselect(int selected, int currentTime) {
+        return selected;
+    }
+
+    protected void startRunning(int id, int currentTime) {
+    }
+
+    // The running, unfinished process was preempted
+    protected void stopRunning(int id, int currentTime) {
+    }
+
+    protected void onComplete(int id, int currentTime) {
+    }
+
+    // Take a waiting process off the ready queue so another CPU can run it, or return NONE.
+    // running is the process on the CPU now (NONE if none), which must stay.
+    protected int migrateOut(int running) {
+        return NONE;
+    }
+
+    // Called while the CPU is free. A policy that can predict a stretch of dispatches with
+    // no arrival and no completion may apply all of it here (remaining times and execution
+    // order) and return the time it ends; returning currentTime leaves the next one to simulate().
+    protected int fastForward(int currentTime) {
+        return currentTime;
+    }
+
+    // Discrete-event simulation of one CPU. Between two events (an arrival, the end of a
+    // slice or of a context switch) nothing can change, so time jumps from one to the next.
+    protected void simulate() {
+        arrivals = new ArrivalStream(table);
+        statistics = new RunStatistics();
+        stopped = false;
+        int currentTime = 0;
+        int completedProcesses = 0;
+        int running = NONE;
+        int previous = NONE;
+
+        while (completedProcesses < table.size()) {
+            admitArrivals(currentTime);
+            if (running == NONE) {
+                int skippedTo = fastForward(currentTime);
+                if (skippedTo != currentTime) {
+                    currentTime = skippedTo;
+                    previous = executionOrder.lastProcess();
+                    continue;
+                }
+            }
+            int next = selectNext(running, currentTime);
+
+            if (next == NONE) {
+                if (!arrivals.hasNext()) {
+                    throw new IllegalStateException("No process can run at time " + currentTime);
+                }
+                // CPU idle, jump straight to the next arrival
+                currentTime = arrivals.nextArrivalTime();
+                continue;
+            }
+
+            if (next != running) {
+                int switchTime = contextSwitchBefore(previous, running, currentTime);
+                if (running != NONE) {
+                    stopRunning(running, currentTime);
+                }
+                if (switchTime > 0) {
+                    currentTime += switchTime;
+                    admitArrivals(currentTime);
+                    next = reselect(next, currentTime);
+                }
+                running = next;
+                startRunning(running, currentTime);
+            }
+            int start = currentTime;
+            int end = Math.min(runUntil(running, start), start + table.getRemainingTime(running));
+            executionOrder.record(running, start, end);
+            table.setRemainingTime(running, table.getRemainingTime(running) - (end - start));
+            currentTime = end;
+            previous = running;
+
+            // Processes that arrived while running queue up ahead of the current one
+            admitArrivals(currentTime - 1);
+
+            boolean completed = table.isComplete(running);
+            if (completed) {
+                table.setCompletionTime(running, currentTime);
+                int turnaround = currentTime - table.getArrivalTime(running);
+                statistics.recordCompletion(turnaround - table.getBurstTime(running), turnaround);
+                completedProcesses++;
+                onComplete(running, currentTime);
+                if (stopCondition != null && stopCondition.shouldStop(statistics, currentTime)) {
+                    stopped = true;
+                    break;
+                }
+            } else if (!endSlice(running, start, end)) {
+                continue;
+            }
+            currentTime += contextSwitchAfter(running, completed);
+            running = NONE;
+        }
+    }
+
+    // Hand every process that has arrived by the given time to the policy; on a multi-core
+    // run, to the CPU the load balancing picks for it
+    protected void admitArrivals(int time) {
+        if (multiCore != null) {
+            multiCore.admitArrivals(time);
+            return;
+        }
+        arrivals.admitUpTo(time, admitter);
+    }
+
+    // Arrival time of the next process not yet admitted, or Integer.MAX_VALUE if none are left
+    protected int nextArrivalTime() {
+        return multiCore != null ? multiCore.nextArrivalTime() : arrivals.nextArrivalTime();
+    }
+
+    // Calculate waiting and turnaround times, then write the results back
+    // into the caller's processes, if there are any
     protected void calculateTimes() {
-        for (Process p : processes) {
-            p.setTurnaroundTime(p.getCompletionTime() - p.getArrivalTime());
-            p.setWaitingTime(p.getTurnaroundTime() - p.getBurstTime());
+        for (int id = 0; id < table.size(); id++) {
+            table.setTurnaroundTime(id, table.getCompletionTime(id) - table.getArrivalTime(id));
+            table.setWaitingTime(id, table.getTurnaroundTime(id) - table.getBurstTime(id));
+        }
+        if (processes != null) {
+            for (Process p : processes) {
+                table.copyStateTo(p);
+            }
         }
     }
 
+    // For a scheduler built from a table, every call builds fresh Process snapshots
     public List<Process> getProcesses() {
-        return processes;
+        return processes != null ? processes : table.getProcesses();
+    }
+
+    // Memory the execution timeline may use before it spills to a temp file; call before schedule()
+    public void setTimelineMemoryBudget(long bytes) {
+        this.executionOrder = new ExecutionTimeline(table, bytes);
+    }
+
+    public ExecutionTimeline getTimeline() {
+        return executionOrder;
+    }
+
+    // Index for time queries over the finished run; call after schedule()
+    public TimelineIndex buildTimelineIndex() {
+        return new TimelineIndex(table, executionOrder);
+    }
+
+    // Waiting and turnaround time statistics of the last run
+    public RunStatistics getStatistics() {
+        return statistics;
+    }
+
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    public List<String> getExecutionOrder() {
+        return executionOrder.asList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package schedulers;
+
+import models.Process;
+import models.ProcessTable;
+import models.RunStatistics;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Runs several schedulers on one parsed workload at the same time. The
+// workload table is only read: each run schedules its own copy of the table's
+// state arrays, so one parse serves every scheduler and no run sees another's
+// changes. Runs go to a fork-join pool, the common pool by default.
+public class SchedulerComparison {
+    // One scheduler's finished run
+    public static class Entry {
+        private final SchedulerType type;
+        private final SchedulerBase scheduler;
+        private final double wallTimeMillis;
+
+        Entry(SchedulerType type, SchedulerBase scheduler, double wallTimeMillis) {
+            this.type = type;
+            this.scheduler = scheduler;
+            this.wallTimeMillis = wallTimeMillis;
+        }
+
+        public SchedulerType getType() {
+            return type;
+        }
+        public SchedulerBase getScheduler() {
+            return scheduler;
+        }
+        public RunStatistics getStatistics() {
+            return scheduler.getStatistics();
+        }
+        public double getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    private SchedulerComparison(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static SchedulerComparison run(ProcessTable workload, int contextSwitch, int rrQuantum, int agingInterval) {
+        return run(workload, Arrays.asList(SchedulerType.values()), contextSwitch, rrQuantum, agingInterval,
+                ForkJoinPool.commonPool());
+    }
+
+    // The caller's processes are read once into a table and are not changed, not even renumbered
+    public static SchedulerComparison run(List<Process> processes, int contextSwitch, int rrQuantum, int agingInterval) {
+        return run(ProcessTable.snapshotOf(processes), contextSwitch, rrQuantum, agingInterval);
+    }
+
+    // Run each type on its own copy of the workload; entries come back in the order of types.
+    // The workload should not have been scheduled itself, or every run starts from its end state.
+    public static SchedulerComparison run(ProcessTable workload, List<SchedulerType> types, int contextSwitch,
+                                          int rrQuantum, int agingInterval, ForkJoinPool pool) {
+        List<Callable<Entry>> runs = new ArrayList<>(types.size());
+        for (SchedulerType type : types) {
+            runs.add(() -> {
+                long start = System.nanoTime();
+                SchedulerBase scheduler = type.create(workload.copy(), contextSwitch, rrQuantum, agingInterval);
+                scheduler.setVerbose(false);
+                scheduler.schedule();
+                return new Entry(type, scheduler, (System.nanoTime() - start) / 1e6);
+            });
+        }
+
+        List<Entry> entries = new ArrayList<>(types.size());
+        for (Future<Entry> run : pool.invokeAll(runs)) {
+            try {
+                entries.add(run.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for the schedulers");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+        return new SchedulerComparison(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    // Entry of the given scheduler, or null if it was not run
+    public Entry getEntry(SchedulerType type) {
+        for (Entry entry : entries) {
+            if (entry.type == type) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // Side-by-side table with one column per scheduler
+    public void writeTable(Appendable out) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        line.append(String.format("%-24s", "Scheduler"));
+        for (Entry entry : entries) {
+            line.append(String.format("%14s", entry.type.getLabel()));
+        }
+        out.append(line).append('\n');
+
+        writeRow(out, "Average Waiting Time", entry -> String.format(Locale.ROOT, "%.2f", entry.getStatistics().getAverageWaitingTime()));
+        writeRow(out, "Average Turnaround Time", entry -> String.format(Locale.ROOT, "%.2f", entry.getStatistics().getAverageTurnaroundTime()));
+        writeRow(out, "Waiting Time p50", entry -> percentile(entry, 0.50));
+        writeRow(out, "Waiting Time p95", entry -> percentile(entry, 0.95));
+        writeRow(out, "Waiting Time p99", entry -> percentile(entry, 0.99));
+        writeRow(out, "Max Turnaround Time", entry -> entry.getStatistics().getCompletedCount() == 0
+                ? "-" : String.valueOf(entry.getStatistics().getMaxTurnaroundTime()));
+        writeRow(out, "Execution Order Length", entry -> String.valueOf(entry.scheduler.getTimeline().size()));
+        writeRow(out, "Wall Time (ms)", entry -> String.format(Locale.ROOT, "%.1f", entry.wallTimeMillis));
+    }
+
+    private interface Cell {
+        String format(Entry entry);
+    }
+
+    private void writeRow(Appendable out, String label, Cell cell) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        line.append(String.format("%-24s", label));
+        for (Entry entry : entries) {
+            line.append(String.format("%14s", cell.format(entry)));
+        }
+        out.append(line).append('\n');
+    }
+
+    private static String percentile(Entry entry, double fraction) {
+        RunStatistics statistics = entry.getStatistics();
+        return statistics.getCompletedCount() == 0 ? "-" : String.valueOf(statistics.getWaitingTimePercentile(fraction));
+    }
+}
@@ -0,0 +1,61 @@
+package schedulers;
+
+import models.Process;
+import models.ProcessTable;
+
+import java.util.*;
+
+// The available schedulers, by the names the test cases use for them
+public enum SchedulerType {
+    SJF("SJF"),
+    RR("RR"),
+    PRIORITY("Priority"),
+    AG("AG");
+
+    private final String label;
+
+    SchedulerType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Parameters a scheduler does not use are ignored
+    public SchedulerBase create(ProcessTable table, int contextSwitch, int rrQuantum, int agingInterval) {
+        switch (this) {
+            case SJF:
+                return new PreemptiveSJF(table, contextSwitch);
+            case RR:
+                return new RoundRobinScheduler(table, contextSwitch, rrQuantum);
+            case PRIORITY:
+                return new PriorityScheduler(table, contextSwitch, agingInterval);
+            default:
+                return new AGScheduler(table, contextSwitch);
+        }
+    }
+
+    public SchedulerBase create(List<Process> processes, int contextSwitch, int rrQuantum, int agingInterval) {
+        switch (this) {
+            case SJF:
+                return new PreemptiveSJF(processes, contextSwitch);
+            case RR:
+                return new RoundRobinScheduler(processes, contextSwitch, rrQuantum);
+            case PRIORITY:
+                return new PriorityScheduler(processes, contextSwitch, agingInterval);
+            default:
+                return new AGScheduler(processes, contextSwitch);
+        }
+    }
+
+    // Look a scheduler up by label or constant name, ignoring case
+    public static SchedulerType fromName(String name) {
+        for (SchedulerType type : values()) {
+            if (type.label.equalsIgnoreCase(name) || type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scheduler: " + name + " (expected one of SJF, RR, Priority, AG)");
+    }
+}
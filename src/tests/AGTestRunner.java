@@ -2,13 +2,11 @@ package tests;
 
 import models.Process;
 import schedulers.AGScheduler;
+import utils.TestCase;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class AGTestRunner {
 
@@ -53,16 +51,16 @@ public class AGTestRunner {
 
     public static void runTest(String fileName) {
         System.out.println("\nLoading " + fileName + "...");
-        String jsonContent;
+        TestCase testCase;
         try {
-            jsonContent = new String(Files.readAllBytes(Paths.get(fileName)));
+            testCase = TestCase.read(Paths.get(fileName));
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Make sure " + fileName + " is in the project root folder.");
             return;
         }
 
-        List<Process> processes = parseProcesses(jsonContent);
+        List<Process> processes = testCase.getProcesses();
         if (processes.isEmpty()) {
             System.out.println("No processes found in JSON.");
             return;
@@ -71,10 +69,10 @@ public class AGTestRunner {
         AGScheduler scheduler = new AGScheduler(processes, 0);
         scheduler.schedule();
 
-        Map<String, ExpectedResult> expectedMap = parseExpectedResults(jsonContent);
-        List<String> expectedExecutionOrder = parseExpectedExecutionOrder(jsonContent);
-        double expectedAvgWait = parseExpectedAverage(jsonContent, "averageWaitingTime");
-        double expectedAvgTurn = parseExpectedAverage(jsonContent, "averageTurnaroundTime");
+        TestCase.Expected expected = testCase.getExpected("AG");
+        List<String> expectedExecutionOrder = expected.getExecutionOrder();
+        double expectedAvgWait = expected.getAverageWaitingTime();
+        double expectedAvgTurn = expected.getAverageTurnaroundTime();
 
         List<String> actualExecutionOrder = scheduler.getExecutionOrder();
 
@@ -95,27 +93,27 @@ public class AGTestRunner {
         System.out.println("------------------------------------------------------------------------------------------------");
 
         for (Process p : actualProcesses) {
-            ExpectedResult exp = expectedMap.get(p.getName());
+            TestCase.ExpectedProcess exp = expected.getProcessResult(p.getName());
             if (exp == null) {
                 System.out.println(p.getName() + " not found in expected output.");
                 continue;
             }
 
-            boolean waitPass = p.getWaitingTime() == exp.waitingTime;
-            boolean turnPass = p.getTurnaroundTime() == exp.turnaroundTime;
-            boolean histPass = p.getQuantumHistory().equals(exp.quantumHistory);
+            boolean waitPass = p.getWaitingTime() == exp.getWaitingTime();
+            boolean turnPass = p.getTurnaroundTime() == exp.getTurnaroundTime();
+            boolean histPass = p.getQuantumHistory().equals(exp.getQuantumHistory());
 
             String status = (waitPass && turnPass && histPass) ? "[PASS]" : "[FAIL]";
             if (!waitPass || !turnPass || !histPass) metricsPassed = false;
 
             System.out.printf("%-5s | %-15s | %-15s | %-30s | %s%n",
                     p.getName(),
-                    p.getWaitingTime() + " (Exp:" + exp.waitingTime + ")",
-                    p.getTurnaroundTime() + " (Exp:" + exp.turnaroundTime + ")",
+                    p.getWaitingTime() + " (Exp:" + exp.getWaitingTime() + ")",
+                    p.getTurnaroundTime() + " (Exp:" + exp.getTurnaroundTime() + ")",
                     p.getQuantumHistory().toString(), status);
 
             if (!histPass) {
-                System.out.println("      -> Expected Hist: " + exp.quantumHistory);
+                System.out.println("      -> Expected Hist: " + exp.getQuantumHistory());
             }
         }
         double actualAvgWaitTime = actualProcesses.stream()
@@ -142,86 +140,4 @@ public class AGTestRunner {
             System.out.println("❌ RESULT: TEST FAILED");
         }
     }
-
-    private static List<Process> parseProcesses(String json) {
-        List<Process> list = new ArrayList<>();
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"arrival\"\\s*:\\s*(\\d+),\\s*\"burst\"\\s*:\\s*(\\d+),\\s*\"priority\"\\s*:\\s*(\\d+),\\s*\"quantum\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(json);
-
-        while (m.find()) {
-            String name = m.group(1);
-            int arrival = Integer.parseInt(m.group(2));
-            int burst = Integer.parseInt(m.group(3));
-            int priority = Integer.parseInt(m.group(4));
-            int quantum = Integer.parseInt(m.group(5));
-            list.add(new Process(name, arrival, burst, priority, quantum));
-        }
-        return list;
-    }
-
-    private static Map<String, ExpectedResult> parseExpectedResults(String json) {
-        Map<String, ExpectedResult> map = new HashMap<>();
-
-        int startResults = json.indexOf("\"processResults\"");
-        if (startResults == -1) return map;
-        String resultSection = json.substring(startResults);
-
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"waitingTime\"\\s*:\\s*(\\d+),\\s*\"turnaroundTime\"\\s*:\\s*(\\d+),\\s*\"quantumHistory\"\\s*:\\s*\\[(.*?)]\\s*}");
-        Matcher m = p.matcher(resultSection);
-
-        while (m.find()) {
-            String name = m.group(1);
-            int wait = Integer.parseInt(m.group(2));
-            int turn = Integer.parseInt(m.group(3));
-            String histString = m.group(4);
-
-            List<Integer> hist = new ArrayList<>();
-            if (!histString.trim().isEmpty()) {
-                String[] nums = histString.split(",");
-                for (String num : nums) {
-                    hist.add(Integer.parseInt(num.trim()));
-                }
-            }
-
-            map.put(name, new ExpectedResult(name, wait, turn, hist));
-        }
-        return map;
-    }
-
-    private static List<String> parseExpectedExecutionOrder(String json) {
-        List<String> order = new ArrayList<>();
-        Pattern p = Pattern.compile("\"executionOrder\"\\s*:\\s*\\[(.*?)]");
-        Matcher m = p.matcher(json);
-        if (m.find()) {
-            String content = m.group(1);
-            String[] elements = content.split(",");
-            for (String element : elements) {
-                order.add(element.trim().replace("\"", ""));
-            }
-        }
-        return order;
-    }
-
-    private static double parseExpectedAverage(String json, String avgName) {
-        int agStart = json.indexOf("\"expectedOutput\"");
-        if (agStart == -1) return 0.0;
-
-        Pattern p = Pattern.compile("\"" + avgName + "\"\\s*:\\s*([\\d.]+)");
-        Matcher m = p.matcher(json.substring(agStart));
-        return m.find() ? Double.parseDouble(m.group(1)) : 0.0;
-    }
-
-    static class ExpectedResult {
-        String name;
-        int waitingTime;
-        int turnaroundTime;
-        List<Integer> quantumHistory;
-
-        public ExpectedResult(String name, int waitingTime, int turnaroundTime, List<Integer> quantumHistory) {
-            this.name = name;
-            this.waitingTime = waitingTime;
-            this.turnaroundTime = turnaroundTime;
-            this.quantumHistory = quantumHistory;
-        }
-    }
-}
\ No newline at end of file
+}
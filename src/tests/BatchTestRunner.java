@@ -0,0 +1,249 @@
+package tests;
+
+import models.Process;
+import schedulers.SchedulerBase;
+import schedulers.SchedulerType;
+import utils.TestCase;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Non-interactive runner: finds every .json file under a directory (test_cases
+// by default), runs each scheduler the file has expected output for, and
+// writes one JSON line per (file, scheduler) case and a final summary line.
+// Files are run in parallel; lines are written in file order.
+// Usage: java tests.BatchTestRunner [directory] [--threads N] [--out file]
+// Exits with status 1 if any case failed, 2 on bad arguments.
+public class BatchTestRunner {
+    private static final String USAGE = "Usage: java tests.BatchTestRunner [directory] [--threads N] [--out file]";
+
+    static class CaseResult {
+        final String file;
+        final String scheduler;
+        final List<String> failures = new ArrayList<>();
+        double wallTimeMillis;
+
+        CaseResult(String file, String scheduler) {
+            this.file = file;
+            this.scheduler = scheduler;
+        }
+
+        boolean passed() {
+            return failures.isEmpty();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Paths.get("test_cases");
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--threads")) {
+                    threads = positiveInt(args, ++i);
+                } else if (args[i].equals("--out")) {
+                    outFile = Paths.get(value(args, ++i));
+                } else {
+                    root = Paths.get(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(path -> path.toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+
+        Writer out = outFile != null
+                ? Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int cases = 0;
+        int failed = 0;
+        long start = System.nanoTime();
+        try {
+            List<Future<List<CaseResult>>> pending = new ArrayList<>(files.size());
+            for (Path file : files) {
+                pending.add(executor.submit(() -> runFile(file)));
+            }
+            for (Future<List<CaseResult>> future : pending) {
+                for (CaseResult result : future.get()) {
+                    cases++;
+                    if (!result.passed()) {
+                        failed++;
+                    }
+                    out.write(toJson(result));
+                    out.write('\n');
+                }
+            }
+            double totalMillis = (System.nanoTime() - start) / 1e6;
+            out.write(String.format(Locale.ROOT,
+                    "{\"type\":\"summary\",\"files\":%d,\"cases\":%d,\"passed\":%d,\"failed\":%d,\"wallTimeMs\":%.3f}%n",
+                    files.size(), cases, cases - failed, failed, totalMillis));
+        } finally {
+            executor.shutdown();
+            out.flush();
+            if (outFile != null) {
+                out.close();
+            }
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        }
+        return args[i];
+    }
+
+    private static int positiveInt(String[] args, int i) {
+        String value = value(args, i);
+        int number;
+        try {
+            number = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a number, not " + value);
+        }
+        if (number <= 0) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a positive number, not " + value);
+        }
+        return number;
+    }
+
+    // Run every scheduler the file has expected output for
+    static List<CaseResult> runFile(Path file) {
+        List<CaseResult> results = new ArrayList<>();
+        TestCase testCase;
+        try {
+            testCase = TestCase.read(file);
+        } catch (IOException e) {
+            CaseResult result = new CaseResult(file.toString(), null);
+            result.failures.add("could not read file: " + e.getMessage());
+            results.add(result);
+            return results;
+        }
+
+        for (SchedulerType type : SchedulerType.values()) {
+            boolean applicable = type == SchedulerType.AG
+                    ? testCase.hasSingleSection()
+                    : testCase.getExpectedSchedulers().contains(type.getLabel());
+            if (applicable) {
+                results.add(runCase(file.toString(), testCase, type));
+            }
+        }
+        return results;
+    }
+
+    static CaseResult runCase(String file, TestCase testCase, SchedulerType type) {
+        CaseResult result = new CaseResult(file, type.getLabel());
+        long start = System.nanoTime();
+        try {
+            SchedulerBase scheduler = type.create(testCase.getProcesses(), testCase.getContextSwitch(),
+                    testCase.getRrQuantum(), testCase.getAgingInterval());
+            scheduler.setVerbose(false);
+            scheduler.schedule();
+            check(scheduler, testCase.getExpected(type.getLabel()), averageTolerance(type), result.failures);
+        } catch (RuntimeException e) {
+            result.failures.add("scheduler threw " + e);
+        }
+        result.wallTimeMillis = (System.nanoTime() - start) / 1e6;
+        return result;
+    }
+
+    // How far an average may be from the expected one, as in the scheduler's interactive runner
+    static double averageTolerance(SchedulerType type) {
+        return type == SchedulerType.SJF ? 0.01 : 0.1;
+    }
+
+    // The same checks as the interactive runners: execution order, per-process times
+    // (and quantum history where given), and averages
+    static void check(SchedulerBase scheduler, TestCase.Expected expected, double averageTolerance, List<String> failures) {
+        if (!scheduler.getExecutionOrder().equals(expected.getExecutionOrder())) {
+            failures.add("execution order " + scheduler.getExecutionOrder() + " (expected " + expected.getExecutionOrder() + ")");
+        }
+
+        List<Process> processes = scheduler.getProcesses();
+        double totalWaiting = 0;
+        double totalTurnaround = 0;
+        for (Process p : processes) {
+            totalWaiting += p.getWaitingTime();
+            totalTurnaround += p.getTurnaroundTime();
+            TestCase.ExpectedProcess exp = expected.getProcessResult(p.getName());
+            if (exp == null) {
+                failures.add(p.getName() + " not found in expected output");
+                continue;
+            }
+            if (p.getWaitingTime() != exp.getWaitingTime()) {
+                failures.add(p.getName() + " waiting time " + p.getWaitingTime() + " (expected " + exp.getWaitingTime() + ")");
+            }
+            if (p.getTurnaroundTime() != exp.getTurnaroundTime()) {
+                failures.add(p.getName() + " turnaround time " + p.getTurnaroundTime() + " (expected " + exp.getTurnaroundTime() + ")");
+            }
+            if (exp.getQuantumHistory() != null && !p.getQuantumHistory().equals(exp.getQuantumHistory())) {
+                failures.add(p.getName() + " quantum history " + p.getQuantumHistory() + " (expected " + exp.getQuantumHistory() + ")");
+            }
+        }
+
+        double averageWaiting = processes.isEmpty() ? 0 : totalWaiting / processes.size();
+        double averageTurnaround = processes.isEmpty() ? 0 : totalTurnaround / processes.size();
+        if (Math.abs(averageWaiting - expected.getAverageWaitingTime()) >= averageTolerance) {
+            failures.add(String.format(Locale.ROOT, "average waiting time %.2f (expected %.2f)",
+                    averageWaiting, expected.getAverageWaitingTime()));
+        }
+        if (Math.abs(averageTurnaround - expected.getAverageTurnaroundTime()) >= averageTolerance) {
+            failures.add(String.format(Locale.ROOT, "average turnaround time %.2f (expected %.2f)",
+                    averageTurnaround, expected.getAverageTurnaroundTime()));
+        }
+    }
+
+    private static String toJson(CaseResult result) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"type\":\"case\",\"file\":");
+        appendString(json, result.file);
+        json.append(",\"scheduler\":");
+        if (result.scheduler == null) {
+            json.append("null");
+        } else {
+            appendString(json, result.scheduler);
+        }
+        json.append(",\"passed\":").append(result.passed());
+        json.append(",\"wallTimeMs\":").append(String.format(Locale.ROOT, "%.3f", result.wallTimeMillis));
+        json.append(",\"failures\":[");
+        for (int i = 0; i < result.failures.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendString(json, result.failures.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
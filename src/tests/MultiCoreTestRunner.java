@@ -0,0 +1,180 @@
+package tests;
+
+import models.ExecutionTimeline;
+import models.ProcessTable;
+import schedulers.MultiCoreScheduler;
+import schedulers.SchedulerBase;
+import schedulers.SchedulerType;
+
+import java.util.*;
+
+// Non-interactive check of MultiCoreScheduler on random workloads, for every
+// scheduler:
+//  - on one CPU it gives the same segments and per-process times as the
+//    single-CPU scheduler
+//  - on 2 to 4 CPUs, with each placement, with and without work stealing and
+//    with a different context switch time per CPU, every process runs for
+//    exactly its burst, never before it arrives or after it completes, never
+//    on two CPUs at once, and no CPU runs two processes at once
+// Usage: java tests.MultiCoreTestRunner [seed] [iterations]
+// Exits with status 1 if any check failed.
+public class MultiCoreTestRunner {
+    private static final int MAX_FAILURES_SHOWN = 10;
+
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            Random random = new Random(seed * 1_000_003L + iteration);
+            int processes = 1 + random.nextInt(30);
+            int maxArrival = random.nextInt(40);
+            int maxBurst = 1 + random.nextInt(15);
+            int contextSwitch = random.nextInt(4);
+            int rrQuantum = 1 + random.nextInt(6);
+            int agingInterval = 1 + random.nextInt(6);
+            long workloadSeed = random.nextLong();
+
+            for (SchedulerType type : SchedulerType.values()) {
+                String run = "iteration " + iteration + " " + type.getLabel() + " (" + processes
+                        + " processes, context switch " + contextSwitch + ")";
+                try {
+                    checkOneCpu(type, RandomWorkloads.table(new Random(workloadSeed), processes, maxArrival, maxBurst),
+                            RandomWorkloads.table(new Random(workloadSeed), processes, maxArrival, maxBurst),
+                            contextSwitch, rrQuantum, agingInterval, run);
+                } catch (RuntimeException e) {
+                    failures.add(run + " on 1 CPU: threw " + e);
+                }
+
+                for (int cpus = 2; cpus <= 4; cpus++) {
+                    int[] contextSwitches = new int[cpus];
+                    for (int cpu = 0; cpu < cpus; cpu++) {
+                        contextSwitches[cpu] = (contextSwitch + cpu) % 4;
+                    }
+                    for (MultiCoreScheduler.Placement placement : MultiCoreScheduler.Placement.values()) {
+                        for (boolean workStealing : new boolean[]{true, false}) {
+                            String configuration = run + " on " + cpus + " CPUs, " + placement
+                                    + (workStealing ? " with" : " without") + " stealing";
+                            ProcessTable table = RandomWorkloads.table(new Random(workloadSeed), processes, maxArrival, maxBurst);
+                            MultiCoreScheduler scheduler = new MultiCoreScheduler(type, table, contextSwitches, rrQuantum, agingInterval);
+                            scheduler.setPlacement(placement);
+                            scheduler.setWorkStealing(workStealing);
+                            try {
+                                scheduler.schedule();
+                                checkInvariants(scheduler, table, configuration);
+                            } catch (RuntimeException e) {
+                                failures.add(configuration + ": threw " + e);
+                            } finally {
+                                scheduler.close();
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < Math.min(MAX_FAILURES_SHOWN, failures.size()); i++) {
+            System.out.println(failures.get(i));
+        }
+        System.out.println("MultiCoreTestRunner: iterations=" + iterations + " failures=" + failures.size());
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    // Two copies of one workload: one for the single-CPU scheduler, one for one CPU of the multi-core one
+    private static void checkOneCpu(SchedulerType type, ProcessTable single, ProcessTable multi, int contextSwitch,
+                                    int rrQuantum, int agingInterval, String run) {
+        SchedulerBase scheduler = type.create(single, contextSwitch, rrQuantum, agingInterval);
+        scheduler.setVerbose(false);
+        MultiCoreScheduler multiCore = new MultiCoreScheduler(type, multi, 1, contextSwitch, rrQuantum, agingInterval);
+        try {
+            scheduler.schedule();
+            multiCore.schedule();
+            String expected = segments(scheduler.getTimeline());
+            String actual = segments(multiCore.getTimeline(0));
+            if (!actual.equals(expected)) {
+                failures.add(run + " on 1 CPU: segments " + actual + " (expected " + expected + ")");
+                return;
+            }
+            for (int id = 0; id < single.size(); id++) {
+                if (multi.getCompletionTime(id) != single.getCompletionTime(id)
+                        || multi.getWaitingTime(id) != single.getWaitingTime(id)
+                        || multi.getTurnaroundTime(id) != single.getTurnaroundTime(id)
+                        || !multi.getQuantumHistory(id).equals(single.getQuantumHistory(id))) {
+                    failures.add(run + " on 1 CPU: " + single.getName(id) + " completes at " + multi.getCompletionTime(id)
+                            + " with history " + multi.getQuantumHistory(id) + " (expected " + single.getCompletionTime(id)
+                            + " with history " + single.getQuantumHistory(id) + ")");
+                    return;
+                }
+            }
+        } finally {
+            scheduler.getTimeline().close();
+            multiCore.close();
+        }
+    }
+
+    private static String segments(ExecutionTimeline timeline) {
+        StringBuilder text = new StringBuilder();
+        timeline.forEachSegment((id, start, end) -> text.append(id).append('@').append(start).append('-').append(end).append(' '));
+        return text.toString().trim();
+    }
+
+    private static void checkInvariants(MultiCoreScheduler scheduler, ProcessTable table, String configuration) {
+        int n = table.size();
+        long[] ran = new long[n];
+        int[] lastEnd = new int[n];
+        List<int[]> all = new ArrayList<>();
+        long busy = 0;
+        for (int cpu = 0; cpu < scheduler.getCpuCount(); cpu++) {
+            List<int[]> segments = new ArrayList<>();
+            scheduler.getTimeline(cpu).forEachSegment((id, start, end) -> segments.add(new int[]{id, start, end}));
+            int previousEnd = Integer.MIN_VALUE;
+            for (int[] segment : segments) {
+                int id = segment[0];
+                if (segment[2] <= segment[1] || segment[1] < previousEnd) {
+                    failures.add(configuration + ": CPU " + cpu + " runs " + table.getName(id) + " in [" + segment[1]
+                            + ", " + segment[2] + ") after a segment ending at " + previousEnd);
+                    return;
+                }
+                if (segment[1] < table.getArrivalTime(id)) {
+                    failures.add(configuration + ": " + table.getName(id) + " runs at " + segment[1]
+                            + " before arriving at " + table.getArrivalTime(id));
+                    return;
+                }
+                previousEnd = segment[2];
+                ran[id] += segment[2] - segment[1];
+                lastEnd[id] = Math.max(lastEnd[id], segment[2]);
+                all.add(segment);
+            }
+            busy += scheduler.getBusyTime(cpu);
+        }
+
+        long totalBurst = 0;
+        for (int id = 0; id < n; id++) {
+            totalBurst += table.getBurstTime(id);
+            if (ran[id] != table.getBurstTime(id) || lastEnd[id] != table.getCompletionTime(id)) {
+                failures.add(configuration + ": " + table.getName(id) + " ran " + ran[id] + " until " + lastEnd[id]
+                        + " (burst " + table.getBurstTime(id) + ", completion " + table.getCompletionTime(id) + ")");
+                return;
+            }
+        }
+        if (busy != totalBurst || scheduler.getStatistics().getCompletedCount() != n) {
+            failures.add(configuration + ": busy time " + busy + " and " + scheduler.getStatistics().getCompletedCount()
+                    + " completions (expected " + totalBurst + " and " + n + ")");
+            return;
+        }
+
+        all.sort(Comparator.<int[]>comparingInt(segment -> segment[0]).thenComparingInt(segment -> segment[1]));
+        for (int i = 1; i < all.size(); i++) {
+            int[] previous = all.get(i - 1);
+            int[] segment = all.get(i);
+            if (segment[0] == previous[0] && segment[1] < previous[2]) {
+                failures.add(configuration + ": " + table.getName(segment[0]) + " runs on two CPUs at " + segment[1]);
+                return;
+            }
+        }
+    }
+}
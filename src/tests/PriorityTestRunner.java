@@ -2,13 +2,11 @@ package tests;
 
 import models.Process;
 import schedulers.PriorityScheduler;
+import utils.TestCase;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class PriorityTestRunner {
 
@@ -49,16 +47,16 @@ public class PriorityTestRunner {
 
     public static void runTest(String filename) {
         System.out.println("\nLoading " + filename + "...");
-        String jsonContent;
+        TestCase testCase;
         try {
-            jsonContent = new String(Files.readAllBytes(Paths.get(filename)));
+            testCase = TestCase.read(Paths.get(filename));
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             return;
         }
-        int contextSwitchTime = parseSingleInt(jsonContent, "contextSwitch");
-        int agingInterval = parseSingleInt(jsonContent, "agingInterval");
-        List<Process> processes = parseProcesses(jsonContent);
+        int contextSwitchTime = testCase.getContextSwitch();
+        int agingInterval = testCase.getAgingInterval();
+        List<Process> processes = testCase.getProcesses();
         if (processes.isEmpty()) {
             System.err.println("No processes found!");
             return;
@@ -67,10 +65,10 @@ public class PriorityTestRunner {
         PriorityScheduler scheduler = new PriorityScheduler(processes, contextSwitchTime, agingInterval);
         scheduler.schedule();
 
-        Map<String, ExpectedResult> expectedResultMap = parsePriorityResults(jsonContent);
-        List<String> expectedExecutionOrder = parsePriorityExecutionOrder(jsonContent);
-        double expectedAvgWait = parseExpectedAverage(jsonContent, "averageWaitingTime");
-        double expectedAvgTurn = parseExpectedAverage(jsonContent, "averageTurnaroundTime");
+        TestCase.Expected expected = testCase.getExpected("Priority");
+        List<String> expectedExecutionOrder = expected.getExecutionOrder();
+        double expectedAvgWait = expected.getAverageWaitingTime();
+        double expectedAvgTurn = expected.getAverageTurnaroundTime();
 
         List<String> actualExecutionOrder = scheduler.getExecutionOrder();
 
@@ -90,12 +88,12 @@ public class PriorityTestRunner {
         System.out.println("--------------------------------------------------------------------------------");
 
         for (Process p : actualProcesses) {
-            ExpectedResult expectedResult = expectedResultMap.get(p.getName());
+            TestCase.ExpectedProcess expectedResult = expected.getProcessResult(p.getName());
             if (expectedResult == null) {
                 continue;
             }
-            boolean waitPass = (p.getWaitingTime() == expectedResult.waitingTime);
-            boolean turnPass = (p.getTurnaroundTime() == expectedResult.turnaroundTime);
+            boolean waitPass = (p.getWaitingTime() == expectedResult.getWaitingTime());
+            boolean turnPass = (p.getTurnaroundTime() == expectedResult.getTurnaroundTime());
             String status = (waitPass && turnPass) ? "[PASS]" : "[FAIL]";
             if (!waitPass || !turnPass) {
                 metricsPassed = false;
@@ -104,8 +102,8 @@ public class PriorityTestRunner {
                     p.getName(),
                     p.getArrivalTime(),
                     p.getBurstTime(),
-                    p.getWaitingTime() + " (Exp:" + expectedResult.waitingTime + ")",
-                    p.getTurnaroundTime() + " (Exp:" + expectedResult.turnaroundTime + ")",
+                    p.getWaitingTime() + " (Exp:" + expectedResult.getWaitingTime() + ")",
+                    p.getTurnaroundTime() + " (Exp:" + expectedResult.getTurnaroundTime() + ")",
                     status
             );
         }
@@ -134,77 +132,4 @@ public class PriorityTestRunner {
             System.out.println("❌ RESULT: TEST FAILED");
         }
     }
-
-    private static int parseSingleInt(String json, String key) {
-        Pattern p = Pattern.compile("\"" + key + "\"\\s*:\\s*(\\d+)");
-        Matcher m = p.matcher(json);
-        return m.find() ? Integer.parseInt(m.group(1)) : -1;
-    }
-
-    private static List<Process> parseProcesses(String json) {
-        List<Process> processes = new ArrayList<>();
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"arrival\"\\s*:\\s*(\\d+),\\s*\"burst\"\\s*:\\s*(\\d+),\\s*\"priority\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(json);
-        while (m.find()) {
-            processes.add(new Process(m.group(1), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3)), Integer.parseInt(m.group(4))));
-        }
-        return processes;
-    }
-
-    private static Map<String, ExpectedResult> parsePriorityResults(String json) {
-        Map<String, ExpectedResult> map = new HashMap<>();
-        int startPriority = json.indexOf("\"Priority\"");
-        if (startPriority == -1) {
-            return map;
-        }
-        String prioritySection = json.substring(startPriority);
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"waitingTime\"\\s*:\\s*(\\d+),\\s*\"turnaroundTime\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(prioritySection);
-        while (m.find()) {
-            map.put(m.group(1), new ExpectedResult(m.group(1), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3))));
-        }
-        return map;
-    }
-
-    private static List<String> parsePriorityExecutionOrder(String json) {
-        List<String> order = new ArrayList<>();
-        int startPriority = json.indexOf("\"Priority\"");
-        if (startPriority == -1) {
-            return order;
-        }
-        String prioritySection = json.substring(startPriority);
-        Pattern p = Pattern.compile("\"executionOrder\"\\s*:\\s*\\[(.*?)]");
-        Matcher m = p.matcher(prioritySection);
-        if (m.find()) {
-            String content = m.group(1);
-            for (String element : content.split(",")) {
-                order.add(element.trim().replace("\"", ""));
-            }
-        }
-        return order;
-    }
-
-    private static double parseExpectedAverage(String json, String key) {
-        int priorityStart = json.indexOf("\"Priority\"");
-        if (priorityStart == -1) return 0.0;
-
-        Pattern p = Pattern.compile("\"" + key + "\"\\s*:\\s*([\\d.]+)");
-        Matcher m = p.matcher(json.substring(priorityStart));
-        if (m.find()) {
-            return Double.parseDouble(m.group(1));
-        }
-        return 0.0;
-    }
-
-    static class ExpectedResult {
-        String name;
-        int waitingTime;
-        int turnaroundTime;
-
-        public ExpectedResult(String name, int waitingTime, int turnaroundTime) {
-            this.name = name;
-            this.waitingTime = waitingTime;
-            this.turnaroundTime = turnaroundTime;
-        }
-    }
 }
@@ -0,0 +1,151 @@
+package tests;
+
+import models.QuantileSketch;
+
+import java.util.*;
+
+// Non-interactive check of QuantileSketch against the sorted values. Each
+// iteration adds random values (small, large, skewed, negative, extreme) and
+// checks the exact counts, sums, minimum and maximum, that percentiles are
+// within 1/128 of the true value, that merging two sketches is the same as
+// adding everything to one, and that the percentile lower bound taken part
+// way through never exceeds the final percentile and is tight at the end.
+// Usage: java tests.QuantileSketchTestRunner [seed] [iterations]
+// Exits with status 1 if any check failed.
+public class QuantileSketchTestRunner {
+    private static final double[] FRACTIONS = {0, 0.001, 0.01, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1};
+    private static final double RELATIVE_ERROR = 1.0 / 128;
+    private static final int MAX_FAILURES_SHOWN = 10;
+
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        try {
+            new QuantileSketch().getPercentile(0.5);
+            failures.add("empty sketch: percentile did not throw");
+        } catch (NoSuchElementException expected) {
+            // No values, no percentile
+        }
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            Random random = new Random(seed * 1_000_003L + iteration);
+            int count = iteration % 10 == 9 ? 100_000 + random.nextInt(100_000) : 1 + random.nextInt(2000);
+            int[] values = new int[count];
+            int shape = random.nextInt(5);
+            for (int i = 0; i < count; i++) {
+                values[i] = value(random, shape);
+            }
+            String run = "iteration " + iteration + " (" + count + " values, shape " + shape + ")";
+            try {
+                check(random, values, run);
+            } catch (RuntimeException e) {
+                failures.add(run + ": threw " + e);
+            }
+        }
+
+        for (int i = 0; i < Math.min(MAX_FAILURES_SHOWN, failures.size()); i++) {
+            System.out.println(failures.get(i));
+        }
+        System.out.println("QuantileSketchTestRunner: iterations=" + iterations + " failures=" + failures.size());
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static int value(Random random, int shape) {
+        switch (shape) {
+            case 0:
+                return random.nextInt(256);
+            case 1:
+                return random.nextInt(1_000_000);
+            case 2:
+                // Mostly short waits with a long tail
+                return (int) Math.min(Integer.MAX_VALUE, -Math.log(1 - random.nextDouble()) * 500);
+            case 3:
+                return random.nextInt(10) == 0 ? -random.nextInt(100) : random.nextInt(5000);
+            default:
+                return random.nextInt(50) == 0 ? Integer.MAX_VALUE - random.nextInt(3) : random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    private static void check(Random random, int[] values, String run) {
+        int count = values.length;
+        QuantileSketch sketch = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        int split = random.nextInt(count + 1);
+        for (int i = 0; i < count; i++) {
+            sketch.add(values[i]);
+            (i < split ? first : second).add(values[i]);
+        }
+
+        // Negative values are counted as 0
+        int[] sorted = new int[count];
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sorted[i] = Math.max(0, values[i]);
+            sum += sorted[i];
+        }
+        Arrays.sort(sorted);
+
+        if (sketch.getCount() != count || sketch.getSum() != sum || sketch.getMin() != sorted[0]
+                || sketch.getMax() != sorted[count - 1] || sketch.getAverage() != (double) sum / count) {
+            failures.add(run + ": count " + sketch.getCount() + ", sum " + sketch.getSum() + ", min " + sketch.getMin()
+                    + ", max " + sketch.getMax() + " (expected " + count + ", " + sum + ", " + sorted[0] + ", "
+                    + sorted[count - 1] + ")");
+            return;
+        }
+
+        for (double fraction : FRACTIONS) {
+            int exact = sorted[(int) Math.max(1, (long) Math.ceil(fraction * count)) - 1];
+            int estimate = sketch.getPercentile(fraction);
+            if (Math.abs((long) estimate - exact) > exact * RELATIVE_ERROR) {
+                failures.add(run + ": percentile " + fraction + " is " + estimate + " (exact " + exact + ")");
+                return;
+            }
+        }
+
+        first.merge(second);
+        if (first.getCount() != count || first.getSum() != sum || first.getMin() != sorted[0] || first.getMax() != sorted[count - 1]) {
+            failures.add(run + ": merged count " + first.getCount() + ", sum " + first.getSum() + ", min "
+                    + first.getMin() + ", max " + first.getMax());
+            return;
+        }
+        for (double fraction : FRACTIONS) {
+            if (first.getPercentile(fraction) != sketch.getPercentile(fraction)) {
+                failures.add(run + ": merged percentile " + fraction + " is " + first.getPercentile(fraction)
+                        + " (expected " + sketch.getPercentile(fraction) + ")");
+                return;
+            }
+        }
+
+        // A bound taken from a prefix of the values holds whatever the rest turn out to be
+        int known = random.nextInt(count + 1);
+        QuantileSketch prefix = new QuantileSketch();
+        for (int i = 0; i < known; i++) {
+            prefix.add(values[i]);
+        }
+        for (double fraction : FRACTIONS) {
+            int bound = prefix.getPercentileLowerBound(fraction, count);
+            int exact = sorted[(int) Math.max(1, (long) Math.ceil(fraction * count)) - 1];
+            if (bound > exact || bound > sketch.getPercentile(fraction)) {
+                failures.add(run + ": lower bound of percentile " + fraction + " after " + known + " values is " + bound
+                        + " (final " + sketch.getPercentile(fraction) + ", exact " + exact + ")");
+                return;
+            }
+        }
+        // With every value known the bound is the bottom of the percentile's bucket
+        for (double fraction : FRACTIONS) {
+            int exact = sorted[(int) Math.max(1, (long) Math.ceil(fraction * count)) - 1];
+            int bound = sketch.getPercentileLowerBound(fraction, count);
+            if (bound < exact - exact * RELATIVE_ERROR) {
+                failures.add(run + ": lower bound of percentile " + fraction + " with every value known is " + bound
+                        + " (exact " + exact + ")");
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package tests;
+
+import models.ProcessTable;
+
+import java.util.*;
+
+// Random workloads for the non-interactive checks; the same seed gives the same table
+class RandomWorkloads {
+    private RandomWorkloads() {
+    }
+
+    // Priorities 1 to 10 and AG quanta 1 to 8
+    static ProcessTable table(Random random, int processes, int maxArrival, int maxBurst) {
+        ProcessTable.Builder builder = new ProcessTable.Builder();
+        for (int i = 0; i < processes; i++) {
+            builder.add("P" + (i + 1), random.nextInt(maxArrival + 1), 1 + random.nextInt(maxBurst),
+                    1 + random.nextInt(10), 1 + random.nextInt(8));
+        }
+        return builder.build();
+    }
+}
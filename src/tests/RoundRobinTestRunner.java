@@ -2,13 +2,11 @@ package tests;
 
 import models.Process;
 import schedulers.RoundRobinScheduler;
+import utils.TestCase;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class RoundRobinTestRunner {
 
@@ -54,9 +52,9 @@ public class RoundRobinTestRunner {
 
     public static void runTest(String fileName) {
         System.out.println("\nLoading " + fileName + "...");
-        String jsonContent;
+        TestCase testCase;
         try {
-            jsonContent = new String(Files.readAllBytes(Paths.get(fileName)));
+            testCase = TestCase.read(Paths.get(fileName));
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Make sure " + fileName + " is in the correct location.");
@@ -64,19 +62,19 @@ public class RoundRobinTestRunner {
         }
 
         // Parse test name
-        String testName = parseTestName(jsonContent);
+        String testName = testCase.getName() != null ? testCase.getName() : "Unknown Test";
         System.out.println("Test: " + testName);
 
         // Parse Input Processes
-        List<Process> processes = parseProcesses(jsonContent);
+        List<Process> processes = testCase.getProcesses();
         if (processes.isEmpty()) {
             System.out.println("No processes found in JSON.");
             return;
         }
 
         // Parse Parameters
-        int rrQuantum = parseParameter(jsonContent, "rrQuantum");
-        int contextSwitch = parseParameter(jsonContent, "contextSwitch");
+        int rrQuantum = testCase.getRrQuantum();
+        int contextSwitch = testCase.getContextSwitch();
 
         if (rrQuantum == -1) {
             System.out.println("rrQuantum not found in JSON.");
@@ -92,10 +90,10 @@ public class RoundRobinTestRunner {
 
 
         // Parse Expected Results for RR
-        Map<String, ExpectedResult> expectedMap = parseExpectedResults(jsonContent);
-        List<String> expectedOrder = parseExecutionOrder(jsonContent);
-        double expectedAvgWait = parseAverage(jsonContent, "averageWaitingTime");
-        double expectedAvgTurn = parseAverage(jsonContent, "averageTurnaroundTime");
+        TestCase.Expected expected = testCase.getExpected("RR");
+        List<String> expectedOrder = expected.getExecutionOrder();
+        double expectedAvgWait = expected.getAverageWaitingTime();
+        double expectedAvgTurn = expected.getAverageTurnaroundTime();
 
         // Get actual execution order
         List<String> actualExecutionOrder = scheduler.getExecutionOrder();
@@ -120,15 +118,15 @@ public class RoundRobinTestRunner {
         System.out.println("------------------------------------------------------------------------------------");
 
         for (Process p : actualProcesses) {
-            ExpectedResult exp = expectedMap.get(p.getName());
+            TestCase.ExpectedProcess exp = expected.getProcessResult(p.getName());
             if (exp == null) {
                 System.out.println(p.getName() + " not found in expected output.");
                 allPassed = false;
                 continue;
             }
 
-            boolean waitPass = p.getWaitingTime() == exp.waitingTime;
-            boolean turnPass = p.getTurnaroundTime() == exp.turnaroundTime;
+            boolean waitPass = p.getWaitingTime() == exp.getWaitingTime();
+            boolean turnPass = p.getTurnaroundTime() == exp.getTurnaroundTime();
 
             String status = (waitPass && turnPass) ? "[PASS]" : "[FAIL]";
             if (!waitPass || !turnPass) allPassed = false;
@@ -137,8 +135,8 @@ public class RoundRobinTestRunner {
                     p.getName(),
                     p.getArrivalTime(),
                     p.getBurstTime(),
-                    p.getWaitingTime() + " (Exp:" + exp.waitingTime + ")",
-                    p.getTurnaroundTime() + " (Exp:" + exp.turnaroundTime + ")",
+                    p.getWaitingTime() + " (Exp:" + exp.getWaitingTime() + ")",
+                    p.getTurnaroundTime() + " (Exp:" + exp.getTurnaroundTime() + ")",
                     status
             );
         }
@@ -172,124 +170,4 @@ public class RoundRobinTestRunner {
             System.out.println("❌ RESULT: TEST FAILED");
         }
     }
-
-    private static String parseTestName(String json) {
-        Pattern p = Pattern.compile("\"name\"\\s*:\\s*\"([^\"]+)\"");
-        Matcher m = p.matcher(json);
-        if (m.find()) {
-            return m.group(1);
-        }
-        return "Unknown Test";
-    }
-
-    private static List<Process> parseProcesses(String json) {
-        List<Process> list = new ArrayList<>();
-
-        // Find the input section
-        int inputStart = json.indexOf("\"input\"");
-        int processesStart = json.indexOf("\"processes\"", inputStart);
-        if (processesStart == -1) return list;
-
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"arrival\"\\s*:\\s*(\\d+),\\s*\"burst\"\\s*:\\s*(\\d+),\\s*\"priority\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(json.substring(processesStart));
-
-        while (m.find()) {
-            String name = m.group(1);
-            int arrival = Integer.parseInt(m.group(2));
-            int burst = Integer.parseInt(m.group(3));
-            int priority = Integer.parseInt(m.group(4));
-
-            list.add(new Process(name, arrival, burst, priority));
-        }
-        return list;
-    }
-
-    private static int parseParameter(String json, String paramName) {
-        int inputStart = json.indexOf("\"input\"");
-        if (inputStart == -1) return -1;
-
-        String inputSection = json.substring(inputStart, json.indexOf("\"expectedOutput\""));
-        Pattern p = Pattern.compile("\"" + paramName + "\"\\s*:\\s*(\\d+)");
-        Matcher m = p.matcher(inputSection);
-        if (m.find()) {
-            return Integer.parseInt(m.group(1));
-        }
-        return paramName.equals("contextSwitch") ? 0 : -1;
-    }
-
-    private static Map<String, ExpectedResult> parseExpectedResults(String json) {
-        Map<String, ExpectedResult> map = new HashMap<>();
-
-        // Find RR section in expectedOutput
-        int rrStart = json.indexOf("\"RR\"");
-        if (rrStart == -1) return map;
-
-        int resultsStart = json.indexOf("\"processResults\"", rrStart);
-        if (resultsStart == -1) return map;
-
-        // Find the end of RR section (next scheduler or end of expectedOutput)
-        int rrEnd = json.indexOf("\"Priority\"", rrStart);
-        if (rrEnd == -1) rrEnd = json.indexOf("}", resultsStart + 100);
-
-        String rrSection = json.substring(resultsStart, rrEnd);
-
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"waitingTime\"\\s*:\\s*(\\d+),\\s*\"turnaroundTime\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(rrSection);
-
-        while (m.find()) {
-            String name = m.group(1);
-            int wait = Integer.parseInt(m.group(2));
-            int turn = Integer.parseInt(m.group(3));
-
-            map.put(name, new ExpectedResult(name, wait, turn));
-        }
-        return map;
-    }
-
-    private static List<String> parseExecutionOrder(String json) {
-        List<String> order = new ArrayList<>();
-
-        int rrStart = json.indexOf("\"RR\"");
-        if (rrStart == -1) return order;
-
-        int orderStart = json.indexOf("\"executionOrder\"", rrStart);
-        if (orderStart == -1) return order;
-
-        Pattern p = Pattern.compile("\"executionOrder\"\\s*:\\s*\\[([^\\]]+)\\]");
-        Matcher m = p.matcher(json.substring(rrStart));
-
-        if (m.find()) {
-            String orderStr = m.group(1);
-            Pattern namePattern = Pattern.compile("\"([^\"]+)\"");
-            Matcher nameMatcher = namePattern.matcher(orderStr);
-            while (nameMatcher.find()) {
-                order.add(nameMatcher.group(1));
-            }
-        }
-        return order;
-    }
-
-    private static double parseAverage(String json, String avgName) {
-        int rrStart = json.indexOf("\"RR\"");
-        if (rrStart == -1) return 0.0;
-
-        Pattern p = Pattern.compile("\"" + avgName + "\"\\s*:\\s*([\\d.]+)");
-        Matcher m = p.matcher(json.substring(rrStart));
-        if (m.find()) {
-            return Double.parseDouble(m.group(1));
-        }
-        return 0.0;
-    }
-
-    static class ExpectedResult {
-        String name;
-        int waitingTime;
-        int turnaroundTime;
-
-        public ExpectedResult(String name, int waitingTime, int turnaroundTime) {
-            this.name = name;
-            this.waitingTime = waitingTime;
-            this.turnaroundTime = turnaroundTime;
-        }
-    }
-}
\ No newline at end of file
+}
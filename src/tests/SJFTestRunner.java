@@ -2,13 +2,11 @@ package tests;
 
 import models.Process;
 import schedulers.PreemptiveSJF;
+import utils.TestCase;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class SJFTestRunner {
 
@@ -57,9 +55,9 @@ public class SJFTestRunner {
         System.out.println("Loading " + fileName + " for SJF...");
         System.out.println("========================================");
 
-        String jsonContent;
+        TestCase testCase;
         try {
-            jsonContent = new String(Files.readAllBytes(Paths.get(fileName)));
+            testCase = TestCase.read(Paths.get(fileName));
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Make sure " + fileName + " is in the project root folder.");
@@ -67,13 +65,13 @@ public class SJFTestRunner {
         }
 
         // 1. Parse Input
-        List<Process> processes = parseProcesses(jsonContent);
+        List<Process> processes = testCase.getProcesses();
         if (processes.isEmpty()) {
             System.out.println("No processes found in JSON.");
             return;
         }
 
-        int contextSwitch = parseContextSwitch(jsonContent);
+        int contextSwitch = testCase.getContextSwitch();
         System.out.println("Context Switch Time: " + contextSwitch);
         System.out.println("Number of Processes: " + processes.size());
 
@@ -82,10 +80,10 @@ public class SJFTestRunner {
         scheduler.schedule();
 
         // 3. Parse Expected Results
-        Map<String, ExpectedResult> expectedMap = parseExpectedResults(jsonContent);
-        List<String> expectedExecutionOrder = parseExpectedExecutionOrder(jsonContent);
-        double expectedAvgWait = parseExpectedAverage(jsonContent, "averageWaitingTime");
-        double expectedAvgTurnaround = parseExpectedAverage(jsonContent, "averageTurnaroundTime");
+        TestCase.Expected expected = testCase.getExpected("SJF");
+        List<String> expectedExecutionOrder = expected.getExecutionOrder();
+        double expectedAvgWait = expected.getAverageWaitingTime();
+        double expectedAvgTurnaround = expected.getAverageTurnaroundTime();
 
         List<String> actualExecutionOrder = scheduler.getExecutionOrder();
 
@@ -109,23 +107,23 @@ public class SJFTestRunner {
         System.out.println("---------------------------------------------------------------------------------------------");
 
         for (Process p : actualProcesses) {
-            ExpectedResult exp = expectedMap.get(p.getName());
+            TestCase.ExpectedProcess exp = expected.getProcessResult(p.getName());
             if (exp == null) {
                 System.out.println(p.getName() + " not found in expected output.");
                 metricsPassed = false;
                 continue;
             }
 
-            boolean waitPass = p.getWaitingTime() == exp.waitingTime;
-            boolean turnPass = p.getTurnaroundTime() == exp.turnaroundTime;
+            boolean waitPass = p.getWaitingTime() == exp.getWaitingTime();
+            boolean turnPass = p.getTurnaroundTime() == exp.getTurnaroundTime();
 
             String status = (waitPass && turnPass) ? "✅ [PASS]" : "❌ [FAIL]";
             if (!waitPass || !turnPass) metricsPassed = false;
 
             System.out.printf("%-8s | %5d (Exp: %5d) | %6d (Exp: %5d) | %6d              | %s%n",
                     p.getName(),
-                    p.getWaitingTime(), exp.waitingTime,
-                    p.getTurnaroundTime(), exp.turnaroundTime,
+                    p.getWaitingTime(), exp.getWaitingTime(),
+                    p.getTurnaroundTime(), exp.getTurnaroundTime(),
                     p.getCompletionTime(),
                     status
             );
@@ -162,109 +160,4 @@ public class SJFTestRunner {
         }
         System.out.println("========================================");
     }
-
-    private static List<Process> parseProcesses(String json) {
-        List<Process> list = new ArrayList<>();
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"arrival\"\\s*:\\s*(\\d+),\\s*\"burst\"\\s*:\\s*(\\d+),\\s*\"priority\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(json);
-
-        while (m.find()) {
-            String name = m.group(1);
-            int arrival = Integer.parseInt(m.group(2));
-            int burst = Integer.parseInt(m.group(3));
-            int priority = Integer.parseInt(m.group(4));
-            list.add(new Process(name, arrival, burst, priority));
-        }
-        return list;
-    }
-
-    private static int parseContextSwitch(String json) {
-        Pattern p = Pattern.compile("\"contextSwitch\"\\s*:\\s*(\\d+)");
-        Matcher m = p.matcher(json);
-        if (m.find()) {
-            return Integer.parseInt(m.group(1));
-        }
-        return 0;
-    }
-
-    private static Map<String, ExpectedResult> parseExpectedResults(String json) {
-        Map<String, ExpectedResult> map = new HashMap<>();
-
-        int sjfStart = json.indexOf("\"SJF\"");
-        if (sjfStart == -1) return map;
-
-        int sjfEnd = json.indexOf("\"RR\"", sjfStart);
-        if (sjfEnd == -1) sjfEnd = json.indexOf("\"Priority\"", sjfStart);
-        if (sjfEnd == -1) sjfEnd = json.length();
-
-        String sjfSection = json.substring(sjfStart, sjfEnd);
-
-        Pattern p = Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\",\\s*\"waitingTime\"\\s*:\\s*(\\d+),\\s*\"turnaroundTime\"\\s*:\\s*(\\d+)\\s*}");
-        Matcher m = p.matcher(sjfSection);
-
-        while (m.find()) {
-            String name = m.group(1);
-            int wait = Integer.parseInt(m.group(2));
-            int turn = Integer.parseInt(m.group(3));
-            map.put(name, new ExpectedResult(name, wait, turn));
-        }
-        return map;
-    }
-
-    private static List<String> parseExpectedExecutionOrder(String json) {
-        List<String> order = new ArrayList<>();
-
-        int sjfStart = json.indexOf("\"SJF\"");
-        if (sjfStart == -1) return order;
-
-        int sjfEnd = json.indexOf("\"RR\"", sjfStart);
-        if (sjfEnd == -1) sjfEnd = json.indexOf("\"Priority\"", sjfStart);
-        if (sjfEnd == -1) sjfEnd = json.length();
-
-        String sjfSection = json.substring(sjfStart, sjfEnd);
-
-        Pattern p = Pattern.compile("\"executionOrder\"\\s*:\\s*\\[(.*?)]");
-        Matcher m = p.matcher(sjfSection);
-        if (m.find()) {
-            String content = m.group(1);
-            String[] elements = content.split(",");
-            for (String element : elements) {
-                String cleaned = element.trim().replace("\"", "");
-                if (!cleaned.isEmpty()) {
-                    order.add(cleaned);
-                }
-            }
-        }
-        return order;
-    }
-
-    private static double parseExpectedAverage(String json, String key) {
-        int sjfStart = json.indexOf("\"SJF\"");
-        if (sjfStart == -1) return 0.0;
-
-        int sjfEnd = json.indexOf("\"RR\"", sjfStart);
-        if (sjfEnd == -1) sjfEnd = json.indexOf("\"Priority\"", sjfStart);
-        if (sjfEnd == -1) sjfEnd = json.length();
-
-        String sjfSection = json.substring(sjfStart, sjfEnd);
-
-        Pattern p = Pattern.compile("\"" + key + "\"\\s*:\\s*([0-9.]+)");
-        Matcher m = p.matcher(sjfSection);
-        if (m.find()) {
-            return Double.parseDouble(m.group(1));
-        }
-        return 0.0;
-    }
-
-    static class ExpectedResult {
-        String name;
-        int waitingTime;
-        int turnaroundTime;
-
-        public ExpectedResult(String name, int waitingTime, int turnaroundTime) {
-            this.name = name;
-            this.waitingTime = waitingTime;
-            this.turnaroundTime = turnaroundTime;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package tests;
+
+import models.ExecutionTimeline;
+import models.ProcessTable;
+import models.TimelineIndex;
+import schedulers.SchedulerBase;
+import schedulers.SchedulerType;
+
+import java.util.*;
+
+// Non-interactive check of TimelineIndex against answers worked out tick by
+// tick. Each iteration runs every scheduler on a random workload, with the
+// timeline spilling to disk in every other iteration, and compares
+// runningAt, queueDepthAt and waitingBetween with the brute-force answers.
+// Usage: java tests.TimelineIndexTestRunner [seed] [iterations]
+// Exits with status 1 if any check failed.
+public class TimelineIndexTestRunner {
+    private static final int QUERIES = 300;
+    private static final int MAX_FAILURES_SHOWN = 10;
+
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            Random random = new Random(seed * 1_000_003L + iteration);
+            // Every tenth workload is big enough for the timeline to fill several chunks
+            int processes = iteration % 10 == 9 ? 2000 + random.nextInt(2000) : 1 + random.nextInt(40);
+            int maxArrival = random.nextInt(processes * 3 + 1);
+            int maxBurst = 1 + random.nextInt(12);
+            int contextSwitch = random.nextInt(3);
+            int rrQuantum = 1 + random.nextInt(4);
+            int agingInterval = 1 + random.nextInt(6);
+            long budget = iteration % 2 == 1 ? 0 : ExecutionTimeline.DEFAULT_MEMORY_BUDGET;
+            long workloadSeed = random.nextLong();
+
+            for (SchedulerType type : SchedulerType.values()) {
+                String run = "iteration " + iteration + " " + type.getLabel() + " (" + processes + " processes, budget "
+                        + budget + ")";
+                ProcessTable table = RandomWorkloads.table(new Random(workloadSeed), processes, maxArrival, maxBurst);
+                SchedulerBase scheduler = type.create(table, contextSwitch, rrQuantum, agingInterval);
+                scheduler.setVerbose(false);
+                scheduler.setTimelineMemoryBudget(budget);
+                try {
+                    scheduler.schedule();
+                    check(random, table, scheduler.getTimeline(), scheduler.buildTimelineIndex(), run);
+                } catch (RuntimeException e) {
+                    failures.add(run + ": threw " + e);
+                } finally {
+                    scheduler.getTimeline().close();
+                }
+            }
+        }
+
+        for (int i = 0; i < Math.min(MAX_FAILURES_SHOWN, failures.size()); i++) {
+            System.out.println(failures.get(i));
+        }
+        System.out.println("TimelineIndexTestRunner: iterations=" + iterations + " failures=" + failures.size());
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void check(Random random, ProcessTable table, ExecutionTimeline timeline, TimelineIndex index, String run) {
+        int n = table.size();
+        int horizon = 0;
+        for (int id = 0; id < n; id++) {
+            horizon = Math.max(horizon, table.getCompletionTime(id));
+        }
+
+        // Who runs at each tick, and each process's segments
+        int[] runningAt = new int[horizon + 2];
+        Arrays.fill(runningAt, -1);
+        List<List<int[]>> segments = new ArrayList<>(n);
+        for (int id = 0; id < n; id++) {
+            segments.add(new ArrayList<>());
+        }
+        timeline.forEachSegment((id, start, end) -> {
+            segments.get(id).add(new int[]{start, end});
+            for (int t = start; t < end; t++) {
+                runningAt[t] = id;
+            }
+        });
+
+        for (int t = -1; t <= horizon + 1; t++) {
+            int expected = t < 0 ? -1 : runningAt[t];
+            if (index.runningAt(t) != expected) {
+                failures.add(run + ": running at " + t + " is " + index.runningAt(t) + " (expected " + expected + ")");
+                return;
+            }
+        }
+
+        for (int k = 0; k < QUERIES; k++) {
+            int t = random.nextInt(horizon + 3) - 1;
+            int depth = 0;
+            for (int id = 0; id < n; id++) {
+                if (isWaiting(table, runningAt, id, t)) {
+                    depth++;
+                }
+            }
+            if (index.queueDepthAt(t) != depth) {
+                failures.add(run + ": queue depth at " + t + " is " + index.queueDepthAt(t) + " (expected " + depth + ")");
+                return;
+            }
+        }
+
+        Integer[] byArrival = new Integer[n];
+        for (int id = 0; id < n; id++) {
+            byArrival[id] = id;
+        }
+        Arrays.sort(byArrival, Comparator.<Integer>comparingInt(table::getArrivalTime).thenComparingInt(id -> id));
+        for (int k = 0; k < QUERIES; k++) {
+            int from = random.nextInt(horizon + 2) - 1;
+            int to = from + random.nextInt(Math.max(1, Math.min(horizon + 2, 1 + random.nextInt(40))));
+            List<Integer> expected = new ArrayList<>();
+            for (int id : byArrival) {
+                if (waitedBetween(table, segments.get(id), id, from, to)) {
+                    expected.add(id);
+                }
+            }
+            int[] actual = index.waitingBetween(from, to);
+            if (!Arrays.equals(actual, expected.stream().mapToInt(Integer::intValue).toArray())) {
+                failures.add(run + ": waiting in [" + from + ", " + to + ") is " + Arrays.toString(actual)
+                        + " (expected " + expected + ")");
+                return;
+            }
+        }
+    }
+
+    // Arrived, not completed and not holding the CPU at tick t
+    private static boolean isWaiting(ProcessTable table, int[] runningAt, int id, int t) {
+        return table.getArrivalTime(id) <= t && t < table.getCompletionTime(id) && runningAt[t] != id;
+    }
+
+    // Some tick of [from, to) the process was alive for is not covered by its own segments
+    private static boolean waitedBetween(ProcessTable table, List<int[]> segments, int id, int from, int to) {
+        int start = Math.max(from, table.getArrivalTime(id));
+        int end = Math.min(to, table.getCompletionTime(id));
+        if (start >= end) {
+            return false;
+        }
+        int ran = 0;
+        for (int[] segment : segments) {
+            ran += Math.max(0, Math.min(end, segment[1]) - Math.max(start, segment[0]));
+        }
+        return ran < end - start;
+    }
+}
@@ -0,0 +1,229 @@
+package tests;
+
+import models.ExecutionTimeline;
+import models.ProcessTable;
+
+import java.util.*;
+
+// Non-interactive check of ExecutionTimeline against a plain list of segments.
+// Each iteration records a random run (merged slices, gaps, repeated
+// rotations) under a memory budget of nothing, one or three chunks, or the
+// default, so chunks spill to the temp file and are read back through the
+// chunk cache, and compares the execution order, the segments and the point queries with
+// the list, part way through and at the end.
+// Usage: java tests.TimelineTestRunner [seed] [iterations]
+// Exits with status 1 if any check failed.
+public class TimelineTestRunner {
+    private static final int PROCESSES = 12;
+    // Bytes of one 4096-record chunk
+    private static final long CHUNK_BYTES = 4096L * 3 * Integer.BYTES;
+    private static final int MAX_FAILURES_SHOWN = 10;
+
+    private static final List<String> failures = new ArrayList<>();
+
+    // What the timeline should hold: every segment, repeated rotations expanded
+    private static class Expected {
+        final List<int[]> segments = new ArrayList<>();
+        final List<Integer> order = new ArrayList<>();
+        int lastId = -1;
+        // The next slice merges into the last segment if it is the same process and touches it
+        boolean mergeable = false;
+
+        void add(int id, int start, int end, boolean mayMerge) {
+            int[] last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (mayMerge && mergeable && last[0] == id && last[2] == start) {
+                last[2] = end;
+                return;
+            }
+            segments.add(new int[]{id, start, end});
+            if (id != lastId) {
+                order.add(id);
+            }
+            lastId = id;
+        }
+
+        int end() {
+            return segments.isEmpty() ? 0 : segments.get(segments.size() - 1)[2];
+        }
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        ProcessTable table = table();
+        long[] budgets = {0, CHUNK_BYTES, 3 * CHUNK_BYTES, ExecutionTimeline.DEFAULT_MEMORY_BUDGET};
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            Random random = new Random(seed * 1_000_003L + iteration);
+            long budget = budgets[(iteration / 4) % budgets.length];
+            // Most runs stay within one chunk; every fourth crosses several
+            int operations = iteration % 4 == 3 ? 20_000 + random.nextInt(20_000) : 1 + random.nextInt(300);
+            String run = "iteration " + iteration + " (budget " + budget + ", " + operations + " operations)";
+            try {
+                checkRun(random, table, budget, operations, run);
+            } catch (RuntimeException e) {
+                failures.add(run + ": threw " + e);
+            }
+        }
+
+        for (int i = 0; i < Math.min(MAX_FAILURES_SHOWN, failures.size()); i++) {
+            System.out.println(failures.get(i));
+        }
+        System.out.println("TimelineTestRunner: iterations=" + iterations + " failures=" + failures.size());
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static ProcessTable table() {
+        ProcessTable.Builder builder = new ProcessTable.Builder();
+        for (int i = 0; i < PROCESSES; i++) {
+            builder.add("P" + (i + 1), 0, 1, 1, 1);
+        }
+        return builder.build();
+    }
+
+    private static void checkRun(Random random, ProcessTable table, long budget, int operations, String run) {
+        ExecutionTimeline timeline = new ExecutionTimeline(table, budget);
+        Expected expected = new Expected();
+        int checkAt = random.nextInt(operations);
+        try {
+            for (int op = 0; op < operations; op++) {
+                if (op == checkAt) {
+                    compare(random, timeline, expected, run + " part way");
+                }
+                if (random.nextInt(40) == 0) {
+                    recordRotation(random, timeline, expected);
+                } else {
+                    recordSlice(random, timeline, expected);
+                }
+            }
+            compare(random, timeline, expected, run);
+        } finally {
+            timeline.close();
+        }
+    }
+
+    // A slice that touches the last one or follows a gap; same process half the time
+    private static void recordSlice(Random random, ExecutionTimeline timeline, Expected expected) {
+        int id = expected.lastId >= 0 && random.nextBoolean() ? expected.lastId : random.nextInt(PROCESSES);
+        int start = expected.end() + (random.nextBoolean() ? 0 : random.nextInt(3));
+        int end = start + 1 + random.nextInt(5);
+        timeline.record(id, start, end);
+        expected.add(id, start, end, true);
+        expected.mergeable = true;
+    }
+
+    // count distinct processes as separate segments, then repeated some times
+    private static void recordRotation(Random random, ExecutionTimeline timeline, Expected expected) {
+        int count = 1 + random.nextInt(4);
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < PROCESSES; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+
+        // A gap first, so the first slice cannot merge into the last segment
+        int first = expected.end() + 1 + random.nextInt(3);
+        int time = first;
+        for (int k = 0; k < count; k++) {
+            int start = time + (k == 0 ? 0 : random.nextInt(2));
+            int end = start + 1 + random.nextInt(4);
+            timeline.record(ids.get(k), start, end);
+            expected.add(ids.get(k), start, end, false);
+            time = end;
+        }
+        int times = 1 + random.nextInt(6);
+        int period = time - first + (count == 1 ? 1 : 0) + random.nextInt(3);
+        timeline.repeat(count, times, period);
+
+        int size = expected.segments.size();
+        for (int t = 1; t <= times; t++) {
+            for (int k = size - count; k < size; k++) {
+                int[] segment = expected.segments.get(k);
+                expected.add(segment[0], segment[1] + t * period, segment[2] + t * period, false);
+            }
+        }
+        expected.mergeable = false;
+    }
+
+    private static void compare(Random random, ExecutionTimeline timeline, Expected expected, String run) {
+        List<Integer> order = expected.order;
+        if (timeline.size() != order.size()) {
+            failures.add(run + ": size " + timeline.size() + " (expected " + order.size() + ")");
+            return;
+        }
+        if (timeline.segmentCount() != expected.segments.size()) {
+            failures.add(run + ": segment count " + timeline.segmentCount() + " (expected " + expected.segments.size() + ")");
+        }
+
+        // In order, then at random positions so the cursor moves back and spilled chunks reload
+        for (int i = 0; i < order.size(); i++) {
+            if (timeline.processAt(i) != order.get(i)) {
+                failures.add(run + ": order entry " + i + " is " + timeline.processAt(i) + " (expected " + order.get(i) + ")");
+                return;
+            }
+        }
+        for (int k = 0; k < Math.min(2000, order.size()); k++) {
+            int i = random.nextInt(order.size());
+            if (timeline.processAt(i) != order.get(i)) {
+                failures.add(run + ": order entry " + i + " out of order is " + timeline.processAt(i)
+                        + " (expected " + order.get(i) + ")");
+                return;
+            }
+        }
+        List<String> names = timeline.asList();
+        int sample = order.isEmpty() ? -1 : random.nextInt(order.size());
+        if (sample >= 0 && !names.get(sample).equals("P" + (order.get(sample) + 1))) {
+            failures.add(run + ": name at " + sample + " is " + names.get(sample));
+        }
+
+        int[] index = {0};
+        boolean[] segmentsMatch = {true};
+        timeline.forEachSegment((id, start, end) -> {
+            int i = index[0]++;
+            if (!segmentsMatch[0]) {
+                return;
+            }
+            int[] segment = i < expected.segments.size() ? expected.segments.get(i) : null;
+            if (segment == null || segment[0] != id || segment[1] != start || segment[2] != end) {
+                failures.add(run + ": segment " + i + " is " + id + " [" + start + ", " + end + ") (expected "
+                        + (segment == null ? "none" : segment[0] + " [" + segment[1] + ", " + segment[2] + ")") + ")");
+                segmentsMatch[0] = false;
+            }
+        });
+        if (segmentsMatch[0] && index[0] != expected.segments.size()) {
+            failures.add(run + ": " + index[0] + " segments visited (expected " + expected.segments.size() + ")");
+        }
+
+        int horizon = expected.end() + 2;
+        for (int k = 0; k < 2000; k++) {
+            int time = random.nextInt(horizon + 1) - 1;
+            int[] segment = segmentAt(expected.segments, time);
+            int id = segment == null ? -1 : segment[0];
+            int until = segment == null ? -1 : segment[2];
+            if (timeline.processRunningAt(time) != id || timeline.runningUntil(time) != until) {
+                failures.add(run + ": at " + time + " running " + timeline.processRunningAt(time) + " until "
+                        + timeline.runningUntil(time) + " (expected " + id + " until " + until + ")");
+                return;
+            }
+        }
+    }
+
+    // Segment covering [start, end) at time, by binary search over the sorted segments
+    private static int[] segmentAt(List<int[]> segments, int time) {
+        int low = 0;
+        int high = segments.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid)[1] <= time) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && time < segments.get(found)[2] ? segments.get(found) : null;
+    }
+}
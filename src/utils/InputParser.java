@@ -29,7 +29,9 @@ public class InputParser {
             System.out.print("Quantum: ");
             int quantum = scanner.nextInt();
 
-            processes.add(new Process(name, arrival, burst, priority, quantum));
+            Process process = new Process(name, arrival, burst, priority, quantum);
+            process.setId(i);
+            processes.add(process);
         }
 
         return processes;
@@ -0,0 +1,357 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Pull tokenizer for JSON that works on the raw bytes of a stream, so large
+// files are read once through a fixed buffer and never held in memory.
+// Numbers are parsed straight from the bytes, and names can be compared
+// without building a String.
+public class JsonTokenizer {
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY,
+        NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+    }
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position = 0;
+    private int limit = 0;
+    private long offset = 0;
+
+    // Bytes of the current NAME, STRING or NUMBER token
+    private byte[] text = new byte[64];
+    private int textLength = 0;
+    private boolean integral;
+    private long integerValue;
+
+    public JsonTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    public Token next() throws IOException {
+        int c = skipSeparators();
+        switch (c) {
+            case -1:
+                return Token.END_DOCUMENT;
+            case '{':
+                position++;
+                return Token.BEGIN_OBJECT;
+            case '}':
+                position++;
+                return Token.END_OBJECT;
+            case '[':
+                position++;
+                return Token.BEGIN_ARRAY;
+            case ']':
+                position++;
+                return Token.END_ARRAY;
+            case '"':
+                position++;
+                readString();
+                // A string followed by a colon is the name of an object member
+                if (skipWhitespace() == ':') {
+                    position++;
+                    return Token.NAME;
+                }
+                return Token.STRING;
+            case 't':
+                expectLiteral("true");
+                return Token.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Token.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber();
+                    return Token.NUMBER;
+                }
+                throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    // Text of the current NAME, STRING or NUMBER token
+    public String text() {
+        return new String(text, 0, textLength, StandardCharsets.UTF_8);
+    }
+
+    // True if the current NAME or STRING is the given ASCII text; allocates nothing
+    public boolean textEquals(String ascii) {
+        if (ascii.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int intValue() throws IOException {
+        if (!integral || integerValue < Integer.MIN_VALUE || integerValue > Integer.MAX_VALUE) {
+            throw error("Expected an int but found " + text());
+        }
+        return (int) integerValue;
+    }
+
+    public double doubleValue() {
+        return integral ? integerValue : Double.parseDouble(text());
+    }
+
+    // Read the next token, which must be a number, as an int
+    public int nextInt() throws IOException {
+        Token token = next();
+        if (token != Token.NUMBER) {
+            throw error("Expected a number but found " + token);
+        }
+        return intValue();
+    }
+
+    // Read the next token, which must be a number
+    public double nextDouble() throws IOException {
+        Token token = next();
+        if (token != Token.NUMBER) {
+            throw error("Expected a number but found " + token);
+        }
+        return doubleValue();
+    }
+
+    // Read the next token, which must be a string
+    public String nextString() throws IOException {
+        Token token = next();
+        if (token != Token.STRING) {
+            throw error("Expected a string but found " + token);
+        }
+        return text();
+    }
+
+    // Read the next token, which must be the given one
+    public void expect(Token expected) throws IOException {
+        Token token = next();
+        if (token != expected) {
+            throw error("Expected " + expected + " but found " + token);
+        }
+    }
+
+    // Skip the value that follows (a whole object or array included)
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            Token token = next();
+            switch (token) {
+                case BEGIN_OBJECT:
+                case BEGIN_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw error("Unexpected end of document");
+                default:
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    public IOException error(String message) {
+        return new IOException(message + " at byte " + (offset + position));
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xff;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int n = in.read(buffer);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            position++;
+            c = peek();
+        }
+        return c;
+    }
+
+    // Commas and colons carry no information for a pull reader, so they are skipped with whitespace
+    private int skipSeparators() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ',' || c == ':') {
+            position++;
+            c = peek();
+        }
+        return c;
+    }
+
+    private void readString() throws IOException {
+        textLength = 0;
+        while (true) {
+            // Copy the plain run up to the next quote or escape in one go
+            int start = position;
+            while (position < limit && buffer[position] != '"' && buffer[position] != '\\') {
+                position++;
+            }
+            appendText(buffer, start, position);
+            int c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c < 0) {
+                throw error("Unterminated string");
+            }
+            if (c != '\\') {
+                appendText(c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    appendText(escaped);
+                    break;
+                case 'b':
+                    appendText('\b');
+                    break;
+                case 'f':
+                    appendText('\f');
+                    break;
+                case 'n':
+                    appendText('\n');
+                    break;
+                case 'r':
+                    appendText('\r');
+                    break;
+                case 't':
+                    appendText('\t');
+                    break;
+                case 'u':
+                    appendCodeUnit(readHex());
+                    break;
+                default:
+                    throw error("Invalid escape in string");
+            }
+        }
+    }
+
+    private int readHex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Invalid \\u escape");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    // Append a UTF-16 code unit as UTF-8; surrogate pairs are combined when the low half arrives
+    private int pendingHighSurrogate = -1;
+
+    private void appendCodeUnit(int unit) {
+        if (Character.isHighSurrogate((char) unit)) {
+            pendingHighSurrogate = unit;
+            return;
+        }
+        int codePoint = unit;
+        if (pendingHighSurrogate >= 0 && Character.isLowSurrogate((char) unit)) {
+            codePoint = Character.toCodePoint((char) pendingHighSurrogate, (char) unit);
+        }
+        pendingHighSurrogate = -1;
+        byte[] encoded = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+        for (byte b : encoded) {
+            appendText(b & 0xff);
+        }
+    }
+
+    private void readNumber() throws IOException {
+        textLength = 0;
+        integral = true;
+        integerValue = 0;
+        boolean negative = false;
+        int c = peek();
+        if (c == '-') {
+            negative = true;
+            appendText(c);
+            position++;
+            c = peek();
+        }
+        int digits = 0;
+        while (c >= '0' && c <= '9') {
+            if (digits < 18) {
+                integerValue = integerValue * 10 + (c - '0');
+            } else {
+                integral = false;
+            }
+            digits++;
+            appendText(c);
+            position++;
+            c = peek();
+        }
+        if (digits == 0) {
+            throw error("Invalid number");
+        }
+        while (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-' || (c >= '0' && c <= '9')) {
+            integral = false;
+            appendText(c);
+            position++;
+            c = peek();
+        }
+        if (negative) {
+            integerValue = -integerValue;
+        }
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+    }
+
+    private void appendText(int b) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, textLength * 2);
+        }
+        text[textLength++] = (byte) b;
+    }
+
+    private void appendText(byte[] bytes, int from, int to) {
+        int length = to - from;
+        if (textLength + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+        }
+        System.arraycopy(bytes, from, text, textLength, length);
+        textLength += length;
+    }
+}
@@ -0,0 +1,371 @@
+package utils;
+
+import models.ExecutionTimeline;
+import models.ProcessTable;
+import models.QuantumHistory;
+import models.RunStatistics;
+import schedulers.SchedulerBase;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Writes the results of finished scheduling runs to a buffered sink, reading
+// straight from the scheduler's table and timeline so no Process objects are
+// built. Every scheduler's execution order is written, from its timeline.
+// The summary (averages, waiting time p50/p95/p99, maximum turnaround) comes
+// from the statistics the scheduler kept as processes completed. In
+// summary-only mode only the summary is written, which is what matters once a
+// workload has more processes than anyone will read.
+// Formats:
+//  - TEXT: the console layout of OutputFormatter
+//  - CSV: one row per process; the execution order and averages go on # lines,
+//    which WorkloadLoader skips. Summary-only mode writes one row per run instead.
+//  - JSON_LINES: one object per line, tagged "executionOrder", "process" or "summary"
+public abstract class ResultWriter implements Closeable, Flushable {
+    public enum Format { TEXT, CSV, JSON_LINES }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    protected final Writer out;
+    private final Format format;
+    protected final boolean summaryOnly;
+    // Reused for every line, so writing a row allocates nothing but number strings
+    protected final StringBuilder line = new StringBuilder(128);
+
+    protected ResultWriter(Writer out, Format format, boolean summaryOnly) {
+        this.out = out;
+        this.format = format;
+        this.summaryOnly = summaryOnly;
+    }
+
+    public static ResultWriter open(Format format, Path file, boolean summaryOnly) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        return create(format, writer, summaryOnly);
+    }
+
+    public static ResultWriter open(Format format, WritableByteChannel channel, boolean summaryOnly) {
+        Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return create(format, writer, summaryOnly);
+    }
+
+    // The stream is closed with the writer; flush() instead to keep it open (e.g. System.out)
+    public static ResultWriter open(Format format, OutputStream stream, boolean summaryOnly) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return create(format, writer, summaryOnly);
+    }
+
+    private static ResultWriter create(Format format, Writer writer, boolean summaryOnly) {
+        switch (format) {
+            case CSV:
+                return new CsvWriter(writer, summaryOnly);
+            case JSON_LINES:
+                return new JsonLinesWriter(writer, summaryOnly);
+            default:
+                return new TextWriter(writer, summaryOnly);
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    // Write a finished run, labelled with the scheduler's class name
+    public void write(SchedulerBase scheduler) throws IOException {
+        write(scheduler.getClass().getSimpleName(), scheduler);
+    }
+
+    public void write(String label, SchedulerBase scheduler) throws IOException {
+        ProcessTable table = scheduler.getTable();
+        beginRun(label, table.size());
+        if (!summaryOnly) {
+            writeExecutionOrder(label, table, scheduler.getTimeline());
+            for (int id = 0; id < table.size(); id++) {
+                writeProcess(label, table, id);
+            }
+        }
+        writeSummary(label, scheduler.getStatistics());
+    }
+
+    // Write text that is not a scheduler run, such as parameter sweep points, as it is
+    public void writeText(CharSequence text) throws IOException {
+        out.append(text);
+    }
+
+    protected abstract void beginRun(String label, int processCount) throws IOException;
+
+    protected abstract void writeExecutionOrder(String label, ProcessTable table, ExecutionTimeline timeline)
+            throws IOException;
+
+    protected abstract void writeProcess(String label, ProcessTable table, int id) throws IOException;
+
+    protected abstract void writeSummary(String label, RunStatistics statistics) throws IOException;
+
+    // Write the line buffer and clear it
+    protected void flushLine() throws IOException {
+        line.append('\n');
+        out.append(line);
+        line.setLength(0);
+    }
+
+    // Waiting time percentile, or 0 for a run without processes
+    protected static int waitingPercentile(RunStatistics statistics, double fraction) {
+        return statistics.getCompletedCount() == 0 ? 0 : statistics.getWaitingTimePercentile(fraction);
+    }
+
+    protected static int maxTurnaround(RunStatistics statistics) {
+        return statistics.getCompletedCount() == 0 ? 0 : statistics.getMaxTurnaroundTime();
+    }
+
+    // Machine-readable formats always use a decimal point, whatever the default locale
+    protected static String twoDecimals(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static class TextWriter extends ResultWriter {
+        TextWriter(Writer out, boolean summaryOnly) {
+            super(out, Format.TEXT, summaryOnly);
+        }
+
+        @Override
+        protected void beginRun(String label, int processCount) throws IOException {
+            out.write("\n========================================\n");
+            out.write("RESULTS\n");
+            out.write("========================================\n\n");
+        }
+
+        @Override
+        protected void writeExecutionOrder(String label, ProcessTable table, ExecutionTimeline timeline)
+                throws IOException {
+            line.append("Execution Order: [");
+            for (long i = 0; i < timeline.size(); i++) {
+                if (i > 0) {
+                    line.append(", ");
+                }
+                line.append(table.getName(timeline.processAt(i)));
+                if (line.length() >= BUFFER_SIZE) {
+                    out.append(line);
+                    line.setLength(0);
+                }
+            }
+            line.append("]\n");
+            flushLine();
+        }
+
+        @Override
+        protected void writeProcess(String label, ProcessTable table, int id) throws IOException {
+            line.append("Process: ").append(table.getName(id));
+            line.append("\n  Waiting Time: ").append(table.getWaitingTime(id));
+            line.append("\n  Turnaround Time: ").append(table.getTurnaroundTime(id));
+            line.append("\n  Completion Time: ").append(table.getCompletionTime(id));
+            QuantumHistory history = table.getQuantumHistoryLog(id);
+            if (!history.isEmpty()) {
+                line.append("\n  Quantum History: ").append(history);
+            }
+            line.append('\n');
+            flushLine();
+        }
+
+        @Override
+        protected void writeSummary(String label, RunStatistics statistics) throws IOException {
+            line.append(String.format("Average Waiting Time: %.2f\n", statistics.getAverageWaitingTime()));
+            line.append(String.format("Average Turnaround Time: %.2f\n", statistics.getAverageTurnaroundTime()));
+            line.append("Waiting Time p50/p95/p99: ").append(waitingPercentile(statistics, 0.50));
+            line.append(" / ").append(waitingPercentile(statistics, 0.95));
+            line.append(" / ").append(waitingPercentile(statistics, 0.99));
+            line.append("\nMax Turnaround Time: ").append(maxTurnaround(statistics));
+            line.append("\n========================================\n");
+            flushLine();
+        }
+    }
+
+    private static class CsvWriter extends ResultWriter {
+        private boolean headerWritten = false;
+
+        CsvWriter(Writer out, boolean summaryOnly) {
+            super(out, Format.CSV, summaryOnly);
+        }
+
+        @Override
+        protected void beginRun(String label, int processCount) throws IOException {
+            if (headerWritten) {
+                return;
+            }
+            headerWritten = true;
+            if (summaryOnly) {
+                out.write("scheduler,processes,averageWaiting,averageTurnaround,p50Waiting,p95Waiting,p99Waiting,maxTurnaround\n");
+            } else {
+                out.write("scheduler,name,arrival,burst,completion,waiting,turnaround,quantumHistory\n");
+            }
+        }
+
+        @Override
+        protected void writeExecutionOrder(String label, ProcessTable table, ExecutionTimeline timeline)
+                throws IOException {
+            line.append("# ").append(label).append(" execution order:");
+            for (long i = 0; i < timeline.size(); i++) {
+                line.append(' ').append(table.getName(timeline.processAt(i)));
+                if (line.length() >= BUFFER_SIZE) {
+                    out.append(line);
+                    line.setLength(0);
+                }
+            }
+            flushLine();
+        }
+
+        @Override
+        protected void writeProcess(String label, ProcessTable table, int id) throws IOException {
+            appendField(label).append(',');
+            appendField(table.getName(id)).append(',');
+            line.append(table.getArrivalTime(id)).append(',');
+            line.append(table.getBurstTime(id)).append(',');
+            line.append(table.getCompletionTime(id)).append(',');
+            line.append(table.getWaitingTime(id)).append(',');
+            line.append(table.getTurnaroundTime(id)).append(',');
+            QuantumHistory history = table.getQuantumHistoryLog(id);
+            if (history.getMode() != QuantumHistory.Mode.SUMMARY) {
+                for (int i = 0; i < history.size(); i++) {
+                    if (i > 0) {
+                        line.append(' ');
+                    }
+                    line.append(history.get(i));
+                }
+            }
+            flushLine();
+        }
+
+        @Override
+        protected void writeSummary(String label, RunStatistics statistics) throws IOException {
+            String averageWaiting = twoDecimals(statistics.getAverageWaitingTime());
+            String averageTurnaround = twoDecimals(statistics.getAverageTurnaroundTime());
+            if (summaryOnly) {
+                appendField(label).append(',').append(statistics.getCompletedCount()).append(',');
+                line.append(averageWaiting).append(',').append(averageTurnaround);
+                line.append(',').append(waitingPercentile(statistics, 0.50));
+                line.append(',').append(waitingPercentile(statistics, 0.95));
+                line.append(',').append(waitingPercentile(statistics, 0.99));
+                line.append(',').append(maxTurnaround(statistics));
+            } else {
+                line.append("# ").append(label).append(" average waiting time: ").append(averageWaiting);
+                line.append(", average turnaround time: ").append(averageTurnaround);
+                line.append(", waiting time p50/p95/p99: ").append(waitingPercentile(statistics, 0.50));
+                line.append(" / ").append(waitingPercentile(statistics, 0.95));
+                line.append(" / ").append(waitingPercentile(statistics, 0.99));
+                line.append(", max turnaround time: ").append(maxTurnaround(statistics));
+            }
+            flushLine();
+        }
+
+        // Quote fields that would otherwise break the row
+        private StringBuilder appendField(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return line.append(value);
+            }
+            return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static class JsonLinesWriter extends ResultWriter {
+        JsonLinesWriter(Writer out, boolean summaryOnly) {
+            super(out, Format.JSON_LINES, summaryOnly);
+        }
+
+        @Override
+        protected void beginRun(String label, int processCount) {
+        }
+
+        @Override
+        protected void writeExecutionOrder(String label, ProcessTable table, ExecutionTimeline timeline)
+                throws IOException {
+            line.append("{\"type\":\"executionOrder\",\"scheduler\":");
+            appendString(label).append(",\"order\":[");
+            for (long i = 0; i < timeline.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendString(table.getName(timeline.processAt(i)));
+                if (line.length() >= BUFFER_SIZE) {
+                    out.append(line);
+                    line.setLength(0);
+                }
+            }
+            line.append("]}");
+            flushLine();
+        }
+
+        @Override
+        protected void writeProcess(String label, ProcessTable table, int id) throws IOException {
+            line.append("{\"type\":\"process\",\"scheduler\":");
+            appendString(label);
+            line.append(",\"name\":");
+            appendString(table.getName(id));
+            line.append(",\"arrival\":").append(table.getArrivalTime(id));
+            line.append(",\"burst\":").append(table.getBurstTime(id));
+            line.append(",\"completion\":").append(table.getCompletionTime(id));
+            line.append(",\"waitingTime\":").append(table.getWaitingTime(id));
+            line.append(",\"turnaroundTime\":").append(table.getTurnaroundTime(id));
+            QuantumHistory history = table.getQuantumHistoryLog(id);
+            if (!history.isEmpty() && history.getMode() != QuantumHistory.Mode.SUMMARY) {
+                line.append(",\"quantumHistory\":[");
+                for (int i = 0; i < history.size(); i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    line.append(history.get(i));
+                }
+                line.append(']');
+            }
+            line.append('}');
+            flushLine();
+        }
+
+        @Override
+        protected void writeSummary(String label, RunStatistics statistics) throws IOException {
+            line.append("{\"type\":\"summary\",\"scheduler\":");
+            appendString(label);
+            line.append(",\"processes\":").append(statistics.getCompletedCount());
+            line.append(",\"averageWaitingTime\":").append(twoDecimals(statistics.getAverageWaitingTime()));
+            line.append(",\"averageTurnaroundTime\":").append(twoDecimals(statistics.getAverageTurnaroundTime()));
+            line.append(",\"p50WaitingTime\":").append(waitingPercentile(statistics, 0.50));
+            line.append(",\"p95WaitingTime\":").append(waitingPercentile(statistics, 0.95));
+            line.append(",\"p99WaitingTime\":").append(waitingPercentile(statistics, 0.99));
+            line.append(",\"maxTurnaroundTime\":").append(maxTurnaround(statistics));
+            line.append('}');
+            flushLine();
+        }
+
+        private StringBuilder appendString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\').append(c);
+                } else if (c < 0x20) {
+                    line.append(String.format("\\u%04x", (int) c));
+                } else {
+                    line.append(c);
+                }
+            }
+            return line.append('"');
+        }
+    }
+}
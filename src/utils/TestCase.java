@@ -0,0 +1,269 @@
+package utils;
+
+import models.Process;
+import models.ProcessTable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// One test case file, read in a single streaming pass: the input parameters
+// and processes, and the expected output. Other_Schedulers files hold one
+// expected section per scheduler ("SJF", "RR", "Priority"); AG files hold a
+// single section directly under expectedOutput.
+public class TestCase {
+    private static final String SINGLE_SECTION = "";
+
+    private String name = null;
+    private int contextSwitch = 0;
+    private int rrQuantum = -1;
+    private int agingInterval = -1;
+    private ProcessTable table;
+    private final Map<String, Expected> expected = new HashMap<>();
+
+    // Expected results of one scheduler
+    public static class Expected {
+        private final List<String> executionOrder = new ArrayList<>();
+        private final Map<String, ExpectedProcess> processResults = new LinkedHashMap<>();
+        private double averageWaitingTime = 0.0;
+        private double averageTurnaroundTime = 0.0;
+
+        public List<String> getExecutionOrder() {
+            return executionOrder;
+        }
+        // Expected results of the named process, or null if there are none
+        public ExpectedProcess getProcessResult(String name) {
+            return processResults.get(name);
+        }
+        public Collection<ExpectedProcess> getProcessResults() {
+            return processResults.values();
+        }
+        public double getAverageWaitingTime() {
+            return averageWaitingTime;
+        }
+        public double getAverageTurnaroundTime() {
+            return averageTurnaroundTime;
+        }
+    }
+
+    public static class ExpectedProcess {
+        private final String name;
+        private int waitingTime;
+        private int turnaroundTime;
+        private List<Integer> quantumHistory = null;
+
+        ExpectedProcess(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+        public int getWaitingTime() {
+            return waitingTime;
+        }
+        public int getTurnaroundTime() {
+            return turnaroundTime;
+        }
+        // Expected quantum history, or null if the test does not check it
+        public List<Integer> getQuantumHistory() {
+            return quantumHistory;
+        }
+    }
+
+    public static TestCase read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    public static TestCase read(InputStream in) throws IOException {
+        JsonTokenizer json = new JsonTokenizer(in);
+        TestCase testCase = new TestCase();
+        json.expect(JsonTokenizer.Token.BEGIN_OBJECT);
+        JsonTokenizer.Token token;
+        while ((token = json.next()) != JsonTokenizer.Token.END_OBJECT) {
+            requireName(json, token);
+            if (json.textEquals("name")) {
+                testCase.name = json.nextString();
+            } else if (json.textEquals("input")) {
+                testCase.readInput(json);
+            } else if (json.textEquals("expectedOutput")) {
+                testCase.readExpectedOutput(json);
+            } else {
+                json.skipValue();
+            }
+        }
+        if (testCase.table == null) {
+            testCase.table = new ProcessTable.Builder().build();
+        }
+        return testCase;
+    }
+
+    private void readInput(JsonTokenizer json) throws IOException {
+        json.expect(JsonTokenizer.Token.BEGIN_OBJECT);
+        JsonTokenizer.Token token;
+        while ((token = json.next()) != JsonTokenizer.Token.END_OBJECT) {
+            requireName(json, token);
+            if (json.textEquals("contextSwitch")) {
+                contextSwitch = json.nextInt();
+            } else if (json.textEquals("rrQuantum")) {
+                rrQuantum = json.nextInt();
+            } else if (json.textEquals("agingInterval")) {
+                agingInterval = json.nextInt();
+            } else if (json.textEquals("processes")) {
+                ProcessTable.Builder builder = new ProcessTable.Builder();
+                json.expect(JsonTokenizer.Token.BEGIN_ARRAY);
+                WorkloadLoader.readProcessArray(json, builder);
+                table = builder.build();
+            } else {
+                json.skipValue();
+            }
+        }
+    }
+
+    private void readExpectedOutput(JsonTokenizer json) throws IOException {
+        json.expect(JsonTokenizer.Token.BEGIN_OBJECT);
+        JsonTokenizer.Token token;
+        while ((token = json.next()) != JsonTokenizer.Token.END_OBJECT) {
+            requireName(json, token);
+            // A member that is not a result field names a scheduler's section
+            if (isResultField(json)) {
+                readResultField(json, expected.computeIfAbsent(SINGLE_SECTION, k -> new Expected()));
+            } else {
+                String scheduler = json.text();
+                json.expect(JsonTokenizer.Token.BEGIN_OBJECT);
+                Expected section = expected.computeIfAbsent(scheduler, k -> new Expected());
+                while ((token = json.next()) != JsonTokenizer.Token.END_OBJECT) {
+                    requireName(json, token);
+                    if (isResultField(json)) {
+                        readResultField(json, section);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isResultField(JsonTokenizer json) {
+        return json.textEquals("executionOrder") || json.textEquals("processResults")
+                || json.textEquals("averageWaitingTime") || json.textEquals("averageTurnaroundTime");
+    }
+
+    private static void readResultField(JsonTokenizer json, Expected section) throws IOException {
+        if (json.textEquals("executionOrder")) {
+            json.expect(JsonTokenizer.Token.BEGIN_ARRAY);
+            JsonTokenizer.Token token;
+            while ((token = json.next()) != JsonTokenizer.Token.END_ARRAY) {
+                if (token != JsonTokenizer.Token.STRING) {
+                    throw json.error("Expected a process name but found " + token);
+                }
+                section.executionOrder.add(json.text());
+            }
+        } else if (json.textEquals("processResults")) {
+            readProcessResults(json, section);
+        } else if (json.textEquals("averageWaitingTime")) {
+            section.averageWaitingTime = json.nextDouble();
+        } else {
+            section.averageTurnaroundTime = json.nextDouble();
+        }
+    }
+
+    private static void readProcessResults(JsonTokenizer json, Expected section) throws IOException {
+        json.expect(JsonTokenizer.Token.BEGIN_ARRAY);
+        JsonTokenizer.Token token;
+        while ((token = json.next()) != JsonTokenizer.Token.END_ARRAY) {
+            if (token != JsonTokenizer.Token.BEGIN_OBJECT) {
+                throw json.error("Expected a process result but found " + token);
+            }
+            String name = null;
+            int waitingTime = 0;
+            int turnaroundTime = 0;
+            List<Integer> quantumHistory = null;
+            while ((token = json.next()) != JsonTokenizer.Token.END_OBJECT) {
+                requireName(json, token);
+                if (json.textEquals("name")) {
+                    name = json.nextString();
+                } else if (json.textEquals("waitingTime")) {
+                    waitingTime = json.nextInt();
+                } else if (json.textEquals("turnaroundTime")) {
+                    turnaroundTime = json.nextInt();
+                } else if (json.textEquals("quantumHistory")) {
+                    quantumHistory = new ArrayList<>();
+                    json.expect(JsonTokenizer.Token.BEGIN_ARRAY);
+                    while ((token = json.next()) != JsonTokenizer.Token.END_ARRAY) {
+                        if (token != JsonTokenizer.Token.NUMBER) {
+                            throw json.error("Expected a quantum but found " + token);
+                        }
+                        quantumHistory.add(json.intValue());
+                    }
+                } else {
+                    json.skipValue();
+                }
+            }
+            if (name == null) {
+                throw json.error("Process result without a name");
+            }
+            ExpectedProcess result = new ExpectedProcess(name);
+            result.waitingTime = waitingTime;
+            result.turnaroundTime = turnaroundTime;
+            result.quantumHistory = quantumHistory;
+            section.processResults.put(name, result);
+        }
+    }
+
+    private static void requireName(JsonTokenizer json, JsonTokenizer.Token token) throws IOException {
+        if (token != JsonTokenizer.Token.NAME) {
+            throw json.error("Expected a field name but found " + token);
+        }
+    }
+
+    // Test name, or null if the file has none
+    public String getName() {
+        return name;
+    }
+    // 0 if the file does not set it
+    public int getContextSwitch() {
+        return contextSwitch;
+    }
+    // -1 if the file does not set it
+    public int getRrQuantum() {
+        return rrQuantum;
+    }
+    // -1 if the file does not set it
+    public int getAgingInterval() {
+        return agingInterval;
+    }
+    public ProcessTable getTable() {
+        return table;
+    }
+    // Fresh Process objects for one run, numbered in file order
+    public List<Process> getProcesses() {
+        return table.getProcesses();
+    }
+
+    // Expected results of the given scheduler ("SJF", "RR", "Priority"), falling back to the
+    // file's single section; empty if the file has neither
+    public Expected getExpected(String scheduler) {
+        Expected section = expected.get(scheduler);
+        if (section == null) {
+            section = expected.get(SINGLE_SECTION);
+        }
+        return section != null ? section : new Expected();
+    }
+
+    // True if the expected output is one section not keyed by scheduler, as in the AG files
+    public boolean hasSingleSection() {
+        return expected.containsKey(SINGLE_SECTION);
+    }
+
+    // Scheduler names with their own expected section, in no particular order
+    public Set<String> getExpectedSchedulers() {
+        Set<String> schedulers = new HashSet<>(expected.keySet());
+        schedulers.remove(SINGLE_SECTION);
+        return schedulers;
+    }
+}
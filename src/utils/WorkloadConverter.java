@@ -0,0 +1,33 @@
+package utils;
+
+import models.MappedWorkload;
+import models.ProcessTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Converts a CSV or test case JSON workload into the binary format, so repeated
+// runs over the same workload map it instead of parsing text every time.
+// Usage: java utils.WorkloadConverter <input.json|input.csv> <output.bin>
+// Exits with status 1 if the conversion failed, 2 on bad arguments.
+public class WorkloadConverter {
+    public static void convert(Path input, Path output) throws IOException {
+        ProcessTable table = WorkloadLoader.loadTable(input);
+        MappedWorkload.write(table, output);
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java utils.WorkloadConverter <input.json|input.csv> <output.bin>");
+            System.exit(2);
+        }
+        try {
+            convert(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println("Wrote " + args[1]);
+        } catch (IOException e) {
+            System.err.println("Could not convert " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
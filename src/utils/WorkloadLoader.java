@@ -0,0 +1,368 @@
+package utils;
+
+import models.MappedWorkload;
+import models.Process;
+import models.ProcessTable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Loads workloads from files instead of prompting for every field.
+// Two formats are read, both streamed through a fixed buffer straight into
+// the columns of a ProcessTable:
+//  - CSV with the columns name,arrival,burst,priority[,quantum]. A header row
+//    naming the columns is optional and may list them in any order; blank
+//    lines and lines starting with # are skipped.
+//  - The test case JSON shape, where the processes are the "processes" array
+//    (under "input" or at the top level), or a bare array of process objects.
+// Processes without a quantum start with an empty quantum history, as when
+// built with the four-argument Process constructor.
+// Binary workload files (.bin, see MappedWorkload) are mapped rather than parsed.
+public class WorkloadLoader {
+    private static final int NAME = 0;
+    private static final int ARRIVAL = 1;
+    private static final int BURST = 2;
+    private static final int PRIORITY = 3;
+    private static final int QUANTUM = 4;
+    private static final String[] COLUMNS = {"name", "arrival", "burst", "priority", "quantum"};
+
+    // Load a .json file as test case JSON, a .bin file as a binary workload and anything else as CSV
+    public static ProcessTable loadTable(Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase().endsWith(".bin")) {
+            return new ProcessTable(MappedWorkload.open(file));
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            if (file.getFileName().toString().toLowerCase().endsWith(".json")) {
+                return readJson(in);
+            }
+            return readCsv(in);
+        }
+    }
+
+    // Load a file as Process objects, numbered 0..n-1 in file order
+    public static List<Process> loadProcesses(Path file) throws IOException {
+        return loadTable(file).getProcesses();
+    }
+
+    public static ProcessTable readCsv(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(in);
+        ProcessTable.Builder builder = new ProcessTable.Builder();
+        // Field index of each column, or -1 when the file has no such column
+        int[] columnAt = {0, 1, 2, 3, 4};
+        boolean first = true;
+
+        while (reader.nextLine()) {
+            if (reader.isBlankOrComment()) {
+                continue;
+            }
+            if (first) {
+                first = false;
+                if (reader.fieldCount() > ARRIVAL && !reader.isInt(ARRIVAL)) {
+                    columnAt = readHeader(reader);
+                    continue;
+                }
+            }
+
+            int fields = reader.fieldCount();
+            if (fields <= columnAt[NAME] || fields <= columnAt[ARRIVAL]
+                    || fields <= columnAt[BURST] || fields <= columnAt[PRIORITY]) {
+                throw reader.error("Expected name, arrival, burst and priority");
+            }
+            String name = reader.text(columnAt[NAME]);
+            int arrival = reader.intAt(columnAt[ARRIVAL]);
+            int burst = reader.intAt(columnAt[BURST]);
+            int priority = reader.intAt(columnAt[PRIORITY]);
+            int quantumField = columnAt[QUANTUM];
+            if (quantumField >= 0 && quantumField < fields && !reader.isEmpty(quantumField)) {
+                builder.add(name, arrival, burst, priority, reader.intAt(quantumField));
+            } else {
+                builder.add(name, arrival, burst, priority);
+            }
+        }
+        return builder.build();
+    }
+
+    private static int[] readHeader(CsvReader reader) throws IOException {
+        int[] columnAt = {-1, -1, -1, -1, -1};
+        for (int field = 0; field < reader.fieldCount(); field++) {
+            String header = reader.text(field).toLowerCase();
+            for (int column = 0; column < COLUMNS.length; column++) {
+                if (header.equals(COLUMNS[column])) {
+                    columnAt[column] = field;
+                }
+            }
+        }
+        for (int column = NAME; column <= PRIORITY; column++) {
+            if (columnAt[column] < 0) {
+                throw reader.error("Header has no " + COLUMNS[column] + " column");
+            }
+        }
+        return columnAt;
+    }
+
+    public static ProcessTable readJson(InputStream in) throws IOException {
+        JsonTokenizer json = new JsonTokenizer(in);
+        ProcessTable.Builder builder = new ProcessTable.Builder();
+
+        JsonTokenizer.Token token = json.next();
+        if (token == JsonTokenizer.Token.BEGIN_ARRAY) {
+            readProcessArray(json, builder);
+            return builder.build();
+        }
+        // Walk into "input" until the processes array; every other member is skipped unread,
+        // and whatever follows the array (the expected output) is never read at all
+        while (token != JsonTokenizer.Token.END_DOCUMENT) {
+            if (token == JsonTokenizer.Token.NAME) {
+                if (json.textEquals("processes")) {
+                    json.expect(JsonTokenizer.Token.BEGIN_ARRAY);
+                    readProcessArray(json, builder);
+                    return builder.build();
+                }
+                if (!json.textEquals("input")) {
+                    json.skipValue();
+                }
+            }
+            token = json.next();
+        }
+        throw new IOException("No \"processes\" array found");
+    }
+
+    // Read process objects up to the end of the array whose opening bracket was just read
+    static void readProcessArray(JsonTokenizer json, ProcessTable.Builder builder) throws IOException {
+        JsonTokenizer.Token token;
+        while ((token = json.next()) != JsonTokenizer.Token.END_ARRAY) {
+            if (token != JsonTokenizer.Token.BEGIN_OBJECT) {
+                throw json.error("Expected a process object but found " + token);
+            }
+            String name = null;
+            int arrival = 0;
+            int burst = 0;
+            int priority = 0;
+            int quantum = 0;
+            int seen = 0;
+            while ((token = json.next()) != JsonTokenizer.Token.END_OBJECT) {
+                if (token != JsonTokenizer.Token.NAME) {
+                    throw json.error("Expected a field name but found " + token);
+                }
+                if (json.textEquals("name")) {
+                    name = json.nextString();
+                    seen |= 1 << NAME;
+                } else if (json.textEquals("arrival")) {
+                    arrival = json.nextInt();
+                    seen |= 1 << ARRIVAL;
+                } else if (json.textEquals("burst")) {
+                    burst = json.nextInt();
+                    seen |= 1 << BURST;
+                } else if (json.textEquals("priority")) {
+                    priority = json.nextInt();
+                    seen |= 1 << PRIORITY;
+                } else if (json.textEquals("quantum")) {
+                    quantum = json.nextInt();
+                    seen |= 1 << QUANTUM;
+                } else {
+                    json.skipValue();
+                }
+            }
+            for (int column = NAME; column <= PRIORITY; column++) {
+                if ((seen & (1 << column)) == 0) {
+                    throw json.error("Process " + builder.size() + " has no " + COLUMNS[column]);
+                }
+            }
+            if ((seen & (1 << QUANTUM)) != 0) {
+                builder.add(name, arrival, burst, priority, quantum);
+            } else {
+                builder.add(name, arrival, burst, priority);
+            }
+        }
+    }
+
+    // Splits a byte stream into lines and comma separated fields without building
+    // a String per line; fields are byte ranges of the current line
+    private static class CsvReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position = 0;
+        private int limit = 0;
+
+        private byte[] line = new byte[256];
+        private int lineLength = 0;
+        private long lineNumber = 0;
+        private int[] fieldStart = new int[8];
+        private int[] fieldEnd = new int[8];
+        private int fieldCount = 0;
+
+        CsvReader(InputStream in) {
+            this.in = in;
+        }
+
+        boolean nextLine() throws IOException {
+            lineLength = 0;
+            fieldCount = 0;
+            boolean any = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        break;
+                    }
+                }
+                any = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    break;
+                }
+            }
+            if (!any) {
+                return false;
+            }
+            lineNumber++;
+            if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                lineLength--;
+            }
+            split();
+            return true;
+        }
+
+        private void append(int from, int to) {
+            int length = to - from;
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            }
+            System.arraycopy(buffer, from, line, lineLength, length);
+            lineLength += length;
+        }
+
+        // Record the trimmed byte range of every field; quoted fields may contain commas
+        private void split() throws IOException {
+            int i = 0;
+            while (true) {
+                while (i < lineLength && (line[i] == ' ' || line[i] == '\t')) {
+                    i++;
+                }
+                int start = i;
+                int end;
+                if (i < lineLength && line[i] == '"') {
+                    start = ++i;
+                    int out = i;
+                    while (true) {
+                        if (i >= lineLength) {
+                            throw error("Unterminated quoted field");
+                        }
+                        if (line[i] == '"') {
+                            if (i + 1 < lineLength && line[i + 1] == '"') {
+                                line[out++] = '"';
+                                i += 2;
+                                continue;
+                            }
+                            i++;
+                            break;
+                        }
+                        line[out++] = line[i++];
+                    }
+                    end = out;
+                    while (i < lineLength && line[i] != ',') {
+                        i++;
+                    }
+                } else {
+                    while (i < lineLength && line[i] != ',') {
+                        i++;
+                    }
+                    end = i;
+                    while (end > start && (line[end - 1] == ' ' || line[end - 1] == '\t')) {
+                        end--;
+                    }
+                }
+                addField(start, end);
+                if (i >= lineLength) {
+                    return;
+                }
+                i++;
+            }
+        }
+
+        private void addField(int start, int end) {
+            if (fieldCount == fieldStart.length) {
+                fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+                fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+            }
+            fieldStart[fieldCount] = start;
+            fieldEnd[fieldCount] = end;
+            fieldCount++;
+        }
+
+        boolean isBlankOrComment() {
+            if (isEmpty(0)) {
+                return fieldCount == 1;
+            }
+            return line[fieldStart[0]] == '#';
+        }
+
+        int fieldCount() {
+            return fieldCount;
+        }
+
+        boolean isEmpty(int field) {
+            return fieldStart[field] == fieldEnd[field];
+        }
+
+        String text(int field) {
+            return new String(line, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+        }
+
+        boolean isInt(int field) {
+            int i = fieldStart[field];
+            int end = fieldEnd[field];
+            if (i < end && line[i] == '-') {
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            for (; i < end; i++) {
+                if (line[i] < '0' || line[i] > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int intAt(int field) throws IOException {
+            if (!isInt(field)) {
+                throw error("Expected an integer but found \"" + text(field) + "\"");
+            }
+            int i = fieldStart[field];
+            int end = fieldEnd[field];
+            boolean negative = line[i] == '-';
+            if (negative) {
+                i++;
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                value = value * 10 + (line[i] - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw error("Integer out of range: " + text(field));
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw error("Integer out of range: " + text(field));
+            }
+            return (int) value;
+        }
+
+        IOException error(String message) {
+            return new IOException("Line " + lineNumber + ": " + message);
+        }
+    }
+}